@@ -0,0 +1,97 @@
+package com.borland.numerals.service.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
+import com.borland.numerals.service.NumeralService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for standard form conversions: the recursive callable on the
+ * calling thread, and the service's single & range conversions (through the
+ * shared conversion executor & range pool).
+ * 
+ * @author chrismborland
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+    private NumeralService service;
+
+    @Setup
+    public void setup() {
+        service = new StandardFormNumeralServiceImpl();
+    }
+
+    /**
+     * Recursive conversion of a random number, on the calling thread.
+     */
+    @Benchmark
+    public String callableToNumeral() {
+        return StandardFormNumeralCallable.toNumeral(nextNumber());
+    }
+
+    /**
+     * Callable conversion of a random number (including the pair), on the calling
+     * thread.
+     */
+    @Benchmark
+    public NumeralPair callableCall() throws Exception {
+        return new StandardFormNumeralCallable(nextNumber()).call();
+    }
+
+    /**
+     * Service conversion of a random number, through the conversion executor.
+     */
+    @Benchmark
+    public NumeralPair serviceSingle() {
+        return service.convertToNumeral(nextNumber());
+    }
+
+    /**
+     * Service conversion of a random range of <code>width</code> numbers, through
+     * the range pool, packed into a numeral range.
+     */
+    @Benchmark
+    public NumeralRange serviceRange(final Width width) {
+        final int low = ThreadLocalRandom.current().nextInt(StandardFormNumeralServiceImpl.MIN_NUMERAL,
+                StandardFormNumeralServiceImpl.MAX_NUMERAL - width.width + 2);
+        return service.convertToNumeralRange(low, low + width.width - 1);
+    }
+
+    private static int nextNumber() {
+        return ThreadLocalRandom.current().nextInt(StandardFormNumeralServiceImpl.MIN_NUMERAL,
+                StandardFormNumeralServiceImpl.MAX_NUMERAL + 1);
+    }
+
+    /**
+     * Width of the range converted per range benchmark operation (separate state,
+     * so the other benchmarks are not repeated per width).
+     */
+    @State(Scope.Benchmark)
+    public static class Width {
+
+        @Param({ "1", "10", "100", "1000", "3999" })
+        private int width;
+
+    }
+
+}
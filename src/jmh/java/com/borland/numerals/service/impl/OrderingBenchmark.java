@@ -0,0 +1,89 @@
+package com.borland.numerals.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import com.borland.numerals.service.NumeralPair;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for ordering range results: inserting pairs (in completion order)
+ * into a <code>TreeSet</code>, as ranges used to be assembled, versus placing
+ * each pair at its index & wrapping the array in a {@link NumeralPairArraySet},
+ * as they are now.
+ * 
+ * @author chrismborland
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderingBenchmark {
+
+    // amount of pairs ordered per operation.
+    @Param({ "10", "100", "1000", "3999" })
+    private int width;
+
+    // pairs in (shuffled) completion order.
+    private NumeralPair[] completed;
+
+    @Setup
+    public void setup() throws Exception {
+        List<NumeralPair> pairs = new ArrayList<>(width);
+        for (int number = 1; number <= width; number++) {
+            pairs.add(new StandardFormNumeralCallable(number).call());
+        }
+        Collections.shuffle(pairs);
+        completed = pairs.toArray(new NumeralPair[width]);
+    }
+
+    /**
+     * Orders the pairs by inserting them into a <code>TreeSet</code>.
+     */
+    @Benchmark
+    public void treeSet(final Blackhole blackhole) {
+        Set<NumeralPair> set = new TreeSet<>();
+        for (NumeralPair pair : completed) {
+            set.add(pair);
+        }
+        consume(set, blackhole);
+    }
+
+    /**
+     * Orders the pairs by placing each at its index in an array set.
+     */
+    @Benchmark
+    public void arraySet(final Blackhole blackhole) {
+        NumeralPair[] pairs = new NumeralPair[width];
+        for (NumeralPair pair : completed) {
+            pairs[pair.numberValue() - 1] = pair;
+        }
+        consume(new NumeralPairArraySet(pairs, 0, pairs.length), blackhole);
+    }
+
+    // iterate, as every consumer of a range does.
+    private static void consume(final Set<NumeralPair> set, final Blackhole blackhole) {
+        for (NumeralPair pair : set) {
+            blackhole.consume(pair);
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for serializing range results: Jackson data binding of numeral
+ * pair objects, versus streaming a packed {@link NumeralRange} with each
+ * response format's writer.
+ * 
+ * @author chrismborland
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    // amount of numbers serialized per operation.
+    @Param({ "1", "100", "3999" })
+    private int width;
+
+    private final ObjectWriter writer = new ObjectMapper().writer();
+
+    private Set<NumeralPair> pairs;
+    private NumeralRange range;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setup() {
+        PrecomputedNumeralServiceImpl service = new PrecomputedNumeralServiceImpl();
+        pairs = service.convertToNumeral(1, width);
+        range = service.convertToNumeralRange(1, width);
+        out = new ByteArrayOutputStream(width * 32);
+    }
+
+    /**
+     * Serializes the pairs with Jackson data binding (format independent).
+     */
+    @Benchmark
+    public int jacksonPairs() throws IOException {
+        out.reset();
+        writer.writeValue(out, pairs);
+        return out.size();
+    }
+
+    /**
+     * Streams the packed range with the format's writer.
+     */
+    @Benchmark
+    public int rangeWriter(final Format format) throws IOException {
+        out.reset();
+        format.format.getWriter().write(range, out);
+        return out.size();
+    }
+
+    /**
+     * Format written by the range writer benchmark (separate state, so the
+     * Jackson benchmark is not repeated per format).
+     */
+    @State(Scope.Benchmark)
+    public static class Format {
+
+        @Param({ "JSON", "NDJSON", "CSV", "COLUMNAR", "BINARY" })
+        private NumeralFormat format;
+
+    }
+
+}
@@ -0,0 +1,340 @@
+package com.borland.numerals.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.borland.numerals.App;
+
+import org.HdrHistogram.Histogram;
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * End-to-end HTTP load test. Sends a weighted mix of requests (see
+ * {@link RequestMix}) at a constant rate from a fixed number of connections,
+ * against an embedded {@link App} (or <code>loadtest.url</code>), and reports
+ * throughput & latency percentiles.
+ *
+ * Requests are scheduled at fixed intervals, and latency is measured from when
+ * a request was scheduled to be sent, not when it was sent. When the server
+ * (or the load test) falls behind, the time requests spend waiting to be sent
+ * is counted, so the percentiles are corrected for coordinated omission.
+ * Service time (from send to response) is reported alongside.
+ *
+ * Configured with system properties (see {@link #main(String[])}). Exits with
+ * status 1 if a threshold is exceeded, so it can gate a pipeline.
+ *
+ * @author chrismborland
+ */
+public class LoadTest {
+
+    // significant digits of latency histograms (microseconds).
+    private static final int HISTOGRAM_DIGITS = 3;
+
+    // percentiles reported in the summary.
+    private static final double[] PERCENTILES = { 50.0, 90.0, 99.0, 99.9 };
+
+    private final String url;
+    private final RequestMix mix;
+    private final int concurrency;
+    private final int rate;
+    private final long warmUpNanos;
+    private final long durationNanos;
+
+    /**
+     * Public constructor.
+     *
+     * @param url             Base URL of the server (no trailing slash).
+     * @param mix             Request mix.
+     * @param concurrency     Connections (& threads) sending requests.
+     * @param rate            Requests per second, across all connections.
+     * @param warmUpSeconds   Seconds of load before recording.
+     * @param durationSeconds Seconds of recorded load.
+     */
+    public LoadTest(final String url, final RequestMix mix, final int concurrency, final int rate,
+            final int warmUpSeconds, final int durationSeconds) {
+        this.url = url;
+        this.mix = mix;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.warmUpNanos = TimeUnit.SECONDS.toNanos(warmUpSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+    }
+
+    /**
+     * Runs the load test. Blocks until done.
+     *
+     * @return Results.
+     * @throws Exception If the load test could not be run.
+     */
+    public Results run() throws Exception {
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        final AtomicLong scheduled = new AtomicLong();
+        final List<Worker> workers = new ArrayList<>(concurrency);
+        try (CloseableHttpClient client = HttpClients.custom().setMaxConnTotal(concurrency)
+                .setMaxConnPerRoute(concurrency).disableAutomaticRetries().build()) {
+            final long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            final long recordFrom = start + warmUpNanos;
+            final long end = recordFrom + durationNanos;
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(client, scheduled, start, intervalNanos, recordFrom, end);
+                worker.setName("numerals-loadtest-" + (i + 1));
+                workers.add(worker);
+                worker.start();
+            }
+            for (Worker worker : workers) {
+                worker.join();
+            }
+        }
+        // merge the workers' histograms.
+        Results results = new Results(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+        for (Worker worker : workers) {
+            results.add(worker.results);
+        }
+        return results;
+    }
+
+    /**
+     * Sends scheduled requests until the end of the load test.
+     */
+    private final class Worker extends Thread {
+
+        private final CloseableHttpClient client;
+        private final AtomicLong scheduled;
+        private final long start;
+        private final long intervalNanos;
+        private final long recordFrom;
+        private final long end;
+        private final Results results = new Results(0L);
+
+        private Worker(final CloseableHttpClient client, final AtomicLong scheduled, final long start,
+                final long intervalNanos, final long recordFrom, final long end) {
+            this.client = client;
+            this.scheduled = scheduled;
+            this.start = start;
+            this.intervalNanos = intervalNanos;
+            this.recordFrom = recordFrom;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (true) {
+                // claim the next slot in the schedule.
+                final long intended = start + scheduled.getAndIncrement() * intervalNanos;
+                if (intended >= end) {
+                    return;
+                }
+                long sent;
+                while ((sent = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - sent);
+                }
+                final RequestMix.Kind kind = mix.next(random);
+                final boolean ok = send(mix.path(kind, random));
+                final long done = System.nanoTime();
+                if (intended >= recordFrom) {
+                    results.record(kind, ok, TimeUnit.NANOSECONDS.toMicros(done - intended),
+                            TimeUnit.NANOSECONDS.toMicros(done - sent));
+                }
+            }
+        }
+
+        private boolean send(final String path) {
+            try (CloseableHttpResponse response = client.execute(new HttpGet(url + path))) {
+                EntityUtils.consume(response.getEntity());
+                return response.getStatusLine().getStatusCode() == 200;
+            } catch (IOException ioe) {
+                return false;
+            }
+        }
+
+    }
+
+    /**
+     * Latencies (microseconds) & errors, per kind of request.
+     */
+    public static final class Results {
+
+        private final long durationMillis;
+        private final Map<RequestMix.Kind, Histogram> latencies = new EnumMap<>(RequestMix.Kind.class);
+        private final Map<RequestMix.Kind, Histogram> serviceTimes = new EnumMap<>(RequestMix.Kind.class);
+        private final Map<RequestMix.Kind, Long> errors = new EnumMap<>(RequestMix.Kind.class);
+
+        private Results(final long durationMillis) {
+            this.durationMillis = durationMillis;
+        }
+
+        private void record(final RequestMix.Kind kind, final boolean ok, final long latencyMicros,
+                final long serviceMicros) {
+            latencies.computeIfAbsent(kind, k -> new Histogram(HISTOGRAM_DIGITS)).recordValue(latencyMicros);
+            serviceTimes.computeIfAbsent(kind, k -> new Histogram(HISTOGRAM_DIGITS)).recordValue(serviceMicros);
+            if (!ok) {
+                errors.merge(kind, 1L, Long::sum);
+            }
+        }
+
+        private void add(final Results other) {
+            other.latencies.forEach((kind, histogram) -> latencies
+                    .computeIfAbsent(kind, k -> new Histogram(HISTOGRAM_DIGITS)).add(histogram));
+            other.serviceTimes.forEach((kind, histogram) -> serviceTimes
+                    .computeIfAbsent(kind, k -> new Histogram(HISTOGRAM_DIGITS)).add(histogram));
+            other.errors.forEach((kind, count) -> errors.merge(kind, count, Long::sum));
+        }
+
+        /**
+         * Get the corrected latencies of all requests.
+         *
+         * @return Histogram (microseconds).
+         */
+        public Histogram getLatencies() {
+            return merge(latencies);
+        }
+
+        /**
+         * Get the service times of all requests.
+         *
+         * @return Histogram (microseconds).
+         */
+        public Histogram getServiceTimes() {
+            return merge(serviceTimes);
+        }
+
+        /**
+         * Get the amount of failed (non-200) requests.
+         *
+         * @return Errors.
+         */
+        public long getErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * Prints the summary, per kind & in total.
+         *
+         * @param out Stream to print to.
+         */
+        public void print(final PrintStream out) {
+            out.printf("%-10s %10s %8s %10s", "kind", "requests", "errors", "req/s");
+            for (double percentile : PERCENTILES) {
+                out.printf(" %10s", "p" + percentile);
+            }
+            out.printf(" %10s %14s%n", "max", "service p99");
+            for (Map.Entry<RequestMix.Kind, Histogram> entry : latencies.entrySet()) {
+                print(out, entry.getKey().getName(), entry.getValue(), serviceTimes.get(entry.getKey()),
+                        errors.getOrDefault(entry.getKey(), 0L));
+            }
+            print(out, "total", getLatencies(), getServiceTimes(), getErrors());
+            out.println("(latencies in milliseconds, corrected for coordinated omission)");
+        }
+
+        private void print(final PrintStream out, final String name, final Histogram latency,
+                final Histogram service, final long errors) {
+            out.printf("%-10s %10d %8d %10.1f", name, latency.getTotalCount(), errors,
+                    latency.getTotalCount() * 1000.0 / durationMillis);
+            for (double percentile : PERCENTILES) {
+                out.printf(" %10.3f", latency.getValueAtPercentile(percentile) / 1000.0);
+            }
+            out.printf(" %10.3f %14.3f%n", latency.getMaxValue() / 1000.0,
+                    service.getValueAtPercentile(99.0) / 1000.0);
+        }
+
+        private static Histogram merge(final Map<RequestMix.Kind, Histogram> histograms) {
+            Histogram merged = new Histogram(HISTOGRAM_DIGITS);
+            histograms.values().forEach(merged::add);
+            return merged;
+        }
+
+    }
+
+    /**
+     * Runs the load test, configured with system properties:
+     *
+     * <ul>
+     * <li><code>loadtest.url</code> - server to load (default: start an embedded
+     * {@link App} & load it on localhost).</li>
+     * <li><code>loadtest.mix</code> - request mix (default
+     * <code>single=80,range=15,fullRange=5</code>).</li>
+     * <li><code>loadtest.rangeWidth</code> - width of random ranges (default
+     * 100).</li>
+     * <li><code>loadtest.concurrency</code> - connections (default 16).</li>
+     * <li><code>loadtest.rate</code> - requests per second (default 1000).</li>
+     * <li><code>loadtest.warmUpSeconds</code> - unrecorded seconds (default
+     * 10).</li>
+     * <li><code>loadtest.durationSeconds</code> - recorded seconds (default
+     * 60).</li>
+     * <li><code>loadtest.report</code> - file for the full percentile
+     * distribution (optional).</li>
+     * <li><code>loadtest.maxP99Millis</code> - fail if the p99 latency is higher
+     * (optional).</li>
+     * <li><code>loadtest.maxErrorRatio</code> - fail if more requests fail
+     * (default 0.01).</li>
+     * </ul>
+     *
+     * @param args Unused.
+     * @throws Exception If the load test could not be run.
+     */
+    public static void main(String[] args) throws Exception {
+        // debug logging (of the server & the http client) would dominate the measurement.
+        Logger.getRootLogger().setLevel(Level.INFO);
+        String url = System.getProperty("loadtest.url", "");
+        if (url.isEmpty()) {
+            App.main(args);
+            url = "http://localhost:" + App.PORT;
+        } else {
+            BasicConfigurator.configure();
+        }
+        RequestMix mix = new RequestMix(System.getProperty("loadtest.mix", "single=80,range=15,fullRange=5"),
+                Integer.getInteger("loadtest.rangeWidth", 100));
+        LoadTest loadTest = new LoadTest(url, mix, Integer.getInteger("loadtest.concurrency", 16),
+                Integer.getInteger("loadtest.rate", 1000), Integer.getInteger("loadtest.warmUpSeconds", 10),
+                Integer.getInteger("loadtest.durationSeconds", 60));
+        Results results = loadTest.run();
+        results.print(System.out);
+        // write the full distribution (milliseconds), i.e. for plotting.
+        String report = System.getProperty("loadtest.report", "");
+        if (!report.isEmpty()) {
+            File file = new File(report);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            try (PrintStream out = new PrintStream(file, "UTF-8")) {
+                results.getLatencies().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        // check the thresholds.
+        boolean failed = false;
+        Histogram latencies = results.getLatencies();
+        String maxP99 = System.getProperty("loadtest.maxP99Millis", "");
+        double p99 = latencies.getValueAtPercentile(99.0) / 1000.0;
+        if (!maxP99.isEmpty() && p99 > Double.parseDouble(maxP99)) {
+            System.out.printf("FAILED: p99 latency %.3fms is above %sms%n", p99, maxP99);
+            failed = true;
+        }
+        double maxErrorRatio = Double.parseDouble(System.getProperty("loadtest.maxErrorRatio", "0.01"));
+        double errorRatio = latencies.getTotalCount() == 0 ? 1.0
+                : results.getErrors() / (double) latencies.getTotalCount();
+        if (errorRatio > maxErrorRatio) {
+            System.out.printf("FAILED: error ratio %.4f is above %s%n", errorRatio, maxErrorRatio);
+            failed = true;
+        }
+        // stop the embedded app (if any) along with the load test.
+        System.exit(failed ? 1 : 0);
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.borland.numerals.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.borland.numerals.servlet.NumeralServlet;
+
+/**
+ * Weighted mix of request kinds for the load test, parsed from a comma
+ * separated list of <code>kind=weight</code> (i.e.
+ * <code>single=80,range=15,fullRange=5</code>).
+ * 
+ * @author chrismborland
+ */
+public class RequestMix {
+
+    /**
+     * Kinds of request sent by the load test.
+     */
+    public enum Kind {
+
+        // single number conversion.
+        SINGLE("single"),
+        // range conversion of a random range, of the configured width.
+        RANGE("range"),
+        // range conversion of the full range (1 - 3999).
+        FULL_RANGE("fullRange"),
+        // numeral to number conversion.
+        NUMERAL("numeral");
+
+        private final String name;
+
+        private Kind(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Find a kind by name.
+         * 
+         * @param name Name of the kind.
+         * @return Kind, or <code>null</code> if unknown.
+         */
+        public static Kind forName(final String name) {
+            for (Kind kind : values()) {
+                if (kind.name.equals(name)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+
+    }
+
+    // numerals used for numeral requests.
+    private static final String[] NUMERALS = { "IV", "XLII", "CDXLIV", "MCMXCIV", "MMMCMXCIX" };
+
+    private final Kind[] kinds;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final int rangeWidth;
+
+    /**
+     * Public constructor.
+     * 
+     * @param mix        Comma separated list of <code>kind=weight</code>.
+     * @param rangeWidth Width of random ranges.
+     * @throws IllegalArgumentException If the mix is invalid.
+     */
+    public RequestMix(final String mix, final int rangeWidth) {
+        List<Kind> kinds = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Kind kind = parts.length == 2 ? Kind.forName(parts[0].trim()) : null;
+            if (kind == null) {
+                throw new IllegalArgumentException("Invalid request mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Invalid request mix weight: " + entry);
+            }
+            if (weight > 0) {
+                total += weight;
+                kinds.add(kind);
+                weights.add(total);
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Empty request mix: " + mix);
+        }
+        if (rangeWidth < 2 || rangeWidth > 3999) {
+            throw new IllegalArgumentException("Invalid range width: " + rangeWidth);
+        }
+        this.kinds = kinds.toArray(new Kind[kinds.size()]);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+        this.totalWeight = total;
+        this.rangeWidth = rangeWidth;
+    }
+
+    /**
+     * Get the kinds in the mix.
+     * 
+     * @return Kinds (with a weight above 0).
+     */
+    public Kind[] getKinds() {
+        return kinds.clone();
+    }
+
+    /**
+     * Picks the kind of the next request, by weight.
+     * 
+     * @param random Random to pick with.
+     * @return Kind.
+     */
+    public Kind next(final Random random) {
+        final int value = random.nextInt(totalWeight);
+        for (int i = 0; i < kinds.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return kinds[i];
+            }
+        }
+        return kinds[kinds.length - 1];
+    }
+
+    /**
+     * Builds the path & query string of a request.
+     * 
+     * @param kind   Kind of request.
+     * @param random Random for the request's parameters.
+     * @return Path & query string.
+     */
+    public String path(final Kind kind, final Random random) {
+        switch (kind) {
+        case SINGLE:
+            return NumeralServlet.SERVLET_PATH + "?query=" + (1 + random.nextInt(3999));
+        case RANGE:
+            final int min = 1 + random.nextInt(4000 - rangeWidth);
+            return NumeralServlet.SERVLET_PATH + "?min=" + min + "&max=" + (min + rangeWidth - 1);
+        case FULL_RANGE:
+            return NumeralServlet.SERVLET_PATH + "?min=1&max=3999";
+        default:
+            return NumeralServlet.SERVLET_PATH + "?numeral=" + NUMERALS[random.nextInt(NUMERALS.length)];
+        }
+    }
+
+}
@@ -1,12 +1,38 @@
 package com.borland.numerals;
 
+import java.nio.file.Paths;
 import java.util.EnumSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.DispatcherType;
 
+import com.borland.numerals.concurrent.BoundedExecutorService;
+import com.borland.numerals.concurrent.BoundedThreadPoolExecutor;
+import com.borland.numerals.concurrent.ThreadPerTaskExecutor;
+import com.borland.numerals.concurrent.ThreadSupport;
+import com.borland.numerals.metrics.CompressionMetricsRequestLog;
+import com.borland.numerals.metrics.ForkJoinPoolMetrics;
+import com.borland.numerals.metrics.JettyThreadPoolMetrics;
+import com.borland.numerals.metrics.MeteredRejectedExecutionHandler;
+import com.borland.numerals.metrics.MetricsFactory;
 import com.borland.numerals.metrics.MetricsInstrumentedFilterContextListener;
+import com.borland.numerals.metrics.PrometheusMetricsServlet;
+import com.borland.numerals.metrics.ThreadPoolExecutorMetrics;
 import com.borland.numerals.monitoring.HealthCheckContextListener;
+import com.borland.numerals.monitoring.NumeralsEngineHealthCheck;
+import com.borland.numerals.monitoring.ReadinessServlet;
+import com.borland.numerals.service.NumeralService;
+import com.borland.numerals.service.impl.MappedNumeralServiceImpl;
 import com.borland.numerals.servlet.NumeralServlet;
+import com.borland.numerals.servlet.ThreadPerRequestFilter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricFilter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.jmx.JmxReporter;
 import com.codahale.metrics.servlet.InstrumentedFilter;
@@ -14,10 +40,16 @@ import com.codahale.metrics.servlets.HealthCheckServlet;
 
 import org.apache.log4j.BasicConfigurator;
 import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.LocalConnector;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.component.AbstractLifeCycle.AbstractLifeCycleListener;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,8 +62,8 @@ public class App {
 
     private static final Logger LOG = LoggerFactory.getLogger(App.class);
 
-    // create metrics registry.
-    public static final MetricRegistry metrics = new MetricRegistry();
+    // create metrics registry (timers, histograms & meters can be reset after warm-up).
+    public static final MetricRegistry metrics = MetricsFactory.newRegistry();
 
     // metric prefix.
     public static final String METRIX_PREFIX = "numerals";
@@ -39,13 +71,67 @@ public class App {
     // port to start jetty server on.
     public static final int PORT = 8080;
 
+    // conversion executor configuration (system properties).
+    public static final String EXECUTOR_THREADS_PROPERTY = "numerals.executor.threads";
+    public static final String EXECUTOR_QUEUE_SIZE_PROPERTY = "numerals.executor.queueSize";
+    public static final int DEFAULT_EXECUTOR_THREADS = 10;
+    public static final int DEFAULT_EXECUTOR_QUEUE_SIZE = 20000;
+    // with virtual threads, threads are cheap; the queue still bounds memory.
+    public static final int DEFAULT_VIRTUAL_EXECUTOR_THREADS = 1000;
+
+    // range conversion configuration (system properties).
+    public static final String RANGE_PARALLELISM_PROPERTY = "numerals.range.parallelism";
+    public static final String RANGE_BLOCK_SIZE_PROPERTY = "numerals.range.blockSize";
+    public static final String RANGE_MAX_QUEUED_PROPERTY = "numerals.range.maxQueued";
+    public static final int DEFAULT_RANGE_BLOCK_SIZE = 256;
+    public static final int DEFAULT_RANGE_MAX_QUEUED = 200;
+
+    // path of the memory-mapped numeral table file (system property, optional).
+    public static final String NUMERAL_TABLE_PROPERTY = "numerals.table";
+
+    // widths of the aligned range windows kept precompressed (system property, comma separated).
+    public static final String PRECOMPRESSED_WIDTHS_PROPERTY = "numerals.precompressed.widths";
+    public static final String DEFAULT_PRECOMPRESSED_WIDTHS = "100,1000";
+
+    // warm-up configuration (system properties). zero rounds skips warm-up.
+    public static final String WARMUP_ROUNDS_PROPERTY = "numerals.warmup.rounds";
+    public static final String WARMUP_ROUND_REQUESTS_PROPERTY = "numerals.warmup.roundRequests";
+    public static final int DEFAULT_WARMUP_ROUNDS = 20;
+    public static final int DEFAULT_WARMUP_ROUND_REQUESTS = 200;
+
+    // metric prefixes of the conversion executor, range pool & jetty thread pool.
+    public static final String CONVERSION_EXECUTOR_METRICS = METRIX_PREFIX + ".conversionExecutor";
+    public static final String RANGE_POOL_METRICS = METRIX_PREFIX + ".rangePool";
+    public static final String JETTY_THREAD_POOL_METRICS = METRIX_PREFIX + ".jetty.threadPool";
+
+    // seconds clients are asked to wait when the conversion executor is saturated.
+    public static final int RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * Shared executor for conversion work. Bounded in both threads & queued
+     * tasks; work submitted while the queue is full is rejected with a
+     * {@link java.util.concurrent.RejectedExecutionException}, which the servlet
+     * reports as <code>503</code>. Shut down with the server.
+     */
+    public static final BoundedExecutorService conversionExecutor = createConversionExecutor();
+
+    /**
+     * Shared fork/join pool for range conversions. Ranges are split into blocks
+     * which are converted in parallel. Shut down with the server.
+     */
+    public static final ForkJoinPool rangePool = createRangePool();
+
     public static void main(String[] args) {
         try {
             // configure basic logging (log4j)
             BasicConfigurator.configure();
 
-            // create the jetty server.
-            Server server = new Server();
+            // create the jetty server, with a measured thread pool.
+            QueuedThreadPool threadPool = new QueuedThreadPool();
+            threadPool.setName("numerals-jetty");
+            metrics.removeMatching(MetricFilter.startsWith(JETTY_THREAD_POOL_METRICS + "."));
+            metrics.registerAll(JETTY_THREAD_POOL_METRICS, new JettyThreadPoolMetrics(threadPool));
+            Server server = new Server(threadPool);
 
             // create the server connector.
             ServerConnector connector = new ServerConnector(server);
@@ -53,32 +139,104 @@ public class App {
             // set the connector port
             connector.setPort(PORT);
             
-            // set the connectors.
-            server.setConnectors(new Connector[] { connector });
+            // warm up through an in-process connector. the server connector is only
+            // added (& opened) once warm, so no traffic arrives while cold.
+            LocalConnector warmUpConnector = new LocalConnector(server);
+            server.setConnectors(new Connector[] { warmUpConnector });
 
             // create the servlet context handler.
             ServletContextHandler servletContextHandler = new ServletContextHandler();
 
             // register our roman numeral servlet.
-            servletContextHandler.addServlet(NumeralServlet.class, NumeralServlet.SERVLET_PATH);
+            // when configured, look numerals up in a shared, memory-mapped table file.
+            NumeralServlet numeralServlet;
+            String numeralTable = System.getProperty(NUMERAL_TABLE_PROPERTY);
+            if (numeralTable != null) {
+                NumeralService numeralService = MappedNumeralServiceImpl.open(Paths.get(numeralTable));
+                numeralServlet = new NumeralServlet(numeralService);
+            } else {
+                numeralServlet = new NumeralServlet();
+            }
+            ServletHolder numeralServletHolder = new ServletHolder(numeralServlet);
+            servletContextHandler.addServlet(numeralServletHolder, NumeralServlet.SERVLET_PATH);
+            // range responses are converted & written asynchronously.
+            numeralServletHolder.setAsyncSupported(true);
 
             // register health check servlet.
             servletContextHandler.addServlet(HealthCheckServlet.class, "/healthcheck");
 
+            // register readiness servlet (503 until warmed up).
+            servletContextHandler.addServlet(ReadinessServlet.class, ReadinessServlet.SERVLET_PATH);
+
+            // register prometheus metrics servlet (scraped outside of the instrumented numerals servlet).
+            servletContextHandler.addServlet(PrometheusMetricsServlet.class, PrometheusMetricsServlet.SERVLET_PATH);
+
             // add our health check context listener to hook in our health checks.
+            // the servlet's service & the server are checked in-process on a schedule; /healthcheck reads the last result.
+            HealthCheckContextListener.healthMetrics.register(HealthCheckContextListener.NUMERALS_HEALTH_CHECK,
+                    new NumeralsEngineHealthCheck(server, numeralServlet.getNumeralService()));
             servletContextHandler.addEventListener(new HealthCheckContextListener());
 
             // add our metrics intrumented context listener to record request/response metrics.
             FilterHolder metricsFilterHolder = servletContextHandler.addFilter(InstrumentedFilter.class, NumeralServlet.SERVLET_PATH, EnumSet.of(DispatcherType.REQUEST));
             metricsFilterHolder.setInitParameter("name-prefix", METRIX_PREFIX);
+            metricsFilterHolder.setAsyncSupported(true);
             servletContextHandler.addEventListener(new MetricsInstrumentedFilterContextListener());
+            // create the filter's request timer first, so it uses the reservoir configured for it.
+            MetricsFactory.timer(METRIX_PREFIX + ".requests");
+
+            // with virtual threads, hand each request off jetty's pool onto a virtual thread.
+            if (ThreadSupport.isVirtualThreads()) {
+                FilterHolder threadPerRequestFilterHolder = servletContextHandler.addFilter(ThreadPerRequestFilter.class, NumeralServlet.SERVLET_PATH, EnumSet.of(DispatcherType.REQUEST));
+                threadPerRequestFilterHolder.setAsyncSupported(true);
+            }
 
-            // set the servlet context hanler on the server.
-            server.setHandler(servletContextHandler);
+            // negotiate gzip compression for numeral responses. precompressed responses
+            // are already marked as gzip encoded, so they pass through as they are.
+            GzipHandler gzipHandler = new GzipHandler();
+            gzipHandler.setIncludedPaths(NumeralServlet.SERVLET_PATH);
+            gzipHandler.setIncludedMethods("GET", "POST");
+            gzipHandler.setHandler(servletContextHandler);
+
+            // set the servlet context hanler (behind gzip) on the server.
+            server.setHandler(gzipHandler);
+
+            // record compressed vs uncompressed response sizes.
+            server.setRequestLog(new CompressionMetricsRequestLog());
+
+            // stop the conversion executor along with the server.
+            server.addLifeCycleListener(new AbstractLifeCycleListener() {
+                @Override
+                public void lifeCycleStopping(LifeCycle event) {
+                    ReadinessServlet.setReady(false);
+                }
+
+                @Override
+                public void lifeCycleStopped(LifeCycle event) {
+                    HealthCheckContextListener.healthMetrics
+                            .unregister(HealthCheckContextListener.NUMERALS_HEALTH_CHECK);
+                    conversionExecutor.shutdown();
+                    rangePool.shutdown();
+                }
+            });
 
             // start the jetty server.
             server.start();
 
+            // warm up the hot paths in-process, until the jit settles.
+            new WarmUp(warmUpConnector, Integer.getInteger(WARMUP_ROUNDS_PROPERTY, DEFAULT_WARMUP_ROUNDS),
+                    Integer.getInteger(WARMUP_ROUND_REQUESTS_PROPERTY, DEFAULT_WARMUP_ROUND_REQUESTS)).run();
+            server.removeConnector(warmUpConnector);
+            warmUpConnector.stop();
+
+            // drop the warm-up samples from the request & conversion metrics (keeping the warm-up's own).
+            MetricsFactory.reset(metrics, (name, metric) -> !name.equals(WarmUp.ROUNDS_METRIC));
+
+            // accept traffic.
+            server.addConnector(connector);
+            connector.start();
+            ReadinessServlet.setReady(true);
+
             // send metrics to JMX.
             final JmxReporter reporter = JmxReporter.forRegistry(metrics).build();
             reporter.start();
@@ -90,4 +248,54 @@ public class App {
 
     }
 
+    /**
+     * Creates the shared conversion executor, sized from system properties.
+     * 
+     * @return Conversion executor.
+     */
+    private static BoundedExecutorService createConversionExecutor() {
+        final int queueSize = Integer.getInteger(EXECUTOR_QUEUE_SIZE_PROPERTY, DEFAULT_EXECUTOR_QUEUE_SIZE);
+        // count rejections before they are thrown.
+        final Meter rejected = metrics.meter(CONVERSION_EXECUTOR_METRICS + ".rejected");
+        final BoundedExecutorService executor;
+        if (ThreadSupport.isVirtualThreads()) {
+            // virtual threads are never pooled: a new one per task, with a semaphore bounding how many run at once.
+            final int threads = Integer.getInteger(EXECUTOR_THREADS_PROPERTY, DEFAULT_VIRTUAL_EXECUTOR_THREADS);
+            LOG.info("Creating virtual thread conversion executor. [threads = {}, queueSize = {}]", threads, queueSize);
+            executor = new ThreadPerTaskExecutor(ThreadSupport.newThreadPerTaskExecutor("numerals-conversion-"),
+                    threads, queueSize, rejected::mark);
+        } else {
+            final int threads = Integer.getInteger(EXECUTOR_THREADS_PROPERTY, DEFAULT_EXECUTOR_THREADS);
+            LOG.info("Creating conversion executor. [threads = {}, queueSize = {}]", threads, queueSize);
+            executor = new BoundedThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(queueSize), ThreadSupport.newThreadFactory("numerals-conversion-"),
+                    new MeteredRejectedExecutionHandler(rejected, new ThreadPoolExecutor.AbortPolicy()));
+        }
+        metrics.registerAll(CONVERSION_EXECUTOR_METRICS, new ThreadPoolExecutorMetrics(executor));
+        return executor;
+    }
+
+    /**
+     * Creates the shared range conversion pool, sized from system properties.
+     * 
+     * @return Range conversion pool.
+     */
+    private static ForkJoinPool createRangePool() {
+        final int parallelism = Integer.getInteger(RANGE_PARALLELISM_PROPERTY,
+                Runtime.getRuntime().availableProcessors());
+        LOG.info("Creating range conversion pool. [parallelism = {}]", parallelism);
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("numerals-range-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        metrics.registerAll(RANGE_POOL_METRICS, new ForkJoinPoolMetrics(pool));
+        // the block size is fixed, so it is a gauge (like the pool's parallelism).
+        final int blockSize = Integer.getInteger(RANGE_BLOCK_SIZE_PROPERTY, DEFAULT_RANGE_BLOCK_SIZE);
+        metrics.register(RANGE_POOL_METRICS + ".blockSize", (Gauge<Integer>) () -> blockSize);
+        return pool;
+    }
+
 }
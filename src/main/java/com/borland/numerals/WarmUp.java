@@ -0,0 +1,181 @@
+package com.borland.numerals;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.borland.numerals.metrics.MetricsFactory;
+import com.borland.numerals.servlet.NumeralServlet;
+import com.codahale.metrics.Timer;
+
+import org.eclipse.jetty.server.LocalConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms the server up before it accepts traffic. Sends rounds of in-process
+ * requests (single, range, numeral, batch, each response format & gzip)
+ * through a {@link LocalConnector}, so the whole stack (filters, servlet,
+ * conversion services, JSON serialization & metrics) is exercised without a
+ * network connection. Stops once JIT compilation settles (little compilation
+ * time is spent during a round), or after the maximum amount of rounds.
+ *
+ * NOTE: Warm-up requests are recorded in the request & conversion metrics,
+ * like any other request. {@link App} resets those metrics once warm (all but
+ * {@link #ROUNDS_METRIC}).
+ *
+ * @author chrismborland
+ */
+public class WarmUp {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmUp.class);
+
+    // rounds always run, before checking if compilation has settled.
+    private static final int MIN_ROUNDS = 3;
+
+    // compilation has settled once a round spends less than this share of its time compiling.
+    private static final double SETTLED_COMPILATION_RATIO = 0.25;
+
+    // per request timeout.
+    private static final long REQUEST_TIMEOUT_SECONDS = 10L;
+
+    // numerals used for numeral mode requests.
+    private static final String[] NUMERALS = { "I", "IV", "XLII", "CDXLIV", "MCMXCIV", "MMMCMXCIX" };
+
+    // response formats exercised by range requests.
+    private static final String[] FORMATS = { "json", "ndjson", "csv", "columnar", "binary" };
+
+    // warm-up round timer.
+    public static final String ROUNDS_METRIC = App.METRIX_PREFIX + ".warmUpRounds";
+
+    // metrics.
+    private final Timer rounds = MetricsFactory.timer(ROUNDS_METRIC);
+
+    private final LocalConnector connector;
+    private final int maxRounds;
+    private final int roundRequests;
+
+    // warm-up requests which were not successful.
+    private int failures;
+
+    /**
+     * Public constructor.
+     *
+     * @param connector     Started, in-process connector to send requests to.
+     * @param maxRounds     Maximum amount of rounds (0 to skip warm-up).
+     * @param roundRequests Requests per round.
+     */
+    public WarmUp(final LocalConnector connector, final int maxRounds, final int roundRequests) {
+        this.connector = connector;
+        this.maxRounds = maxRounds;
+        this.roundRequests = roundRequests;
+    }
+
+    /**
+     * Runs the warm-up. Blocks until done.
+     *
+     * @return Amount of rounds run.
+     * @throws Exception If a request could not be sent.
+     */
+    public int run() throws Exception {
+        final CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        final boolean monitorCompilation = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        final long start = System.nanoTime();
+        int round = 0;
+        while (round < maxRounds) {
+            final long compilationStart = monitorCompilation ? compilation.getTotalCompilationTime() : 0L;
+            final long roundStart = System.nanoTime();
+            for (int i = 0; i < roundRequests; i++) {
+                if (!send(i)) {
+                    failures++;
+                }
+            }
+            final long roundNanos = System.nanoTime() - roundStart;
+            rounds.update(roundNanos, TimeUnit.NANOSECONDS);
+            round++;
+            // stop once the jit has (mostly) stopped compiling.
+            if (monitorCompilation && round >= MIN_ROUNDS) {
+                final long compilationMillis = compilation.getTotalCompilationTime() - compilationStart;
+                if (compilationMillis < TimeUnit.NANOSECONDS.toMillis(roundNanos) * SETTLED_COMPILATION_RATIO) {
+                    break;
+                }
+            }
+        }
+        if (failures > 0) {
+            LOG.warn("Warm-up requests failed. [failures = {}]", failures);
+        }
+        LOG.info("Warm-up complete. [rounds = {}, requests = {}, millis = {}]", round, round * roundRequests,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return round;
+    }
+
+    /**
+     * Get the amount of warm-up requests which were not successful.
+     *
+     * @return Failed requests.
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Sends the <code>i</code>th request of a round.
+     *
+     * @param i Index of the request in the round.
+     * @return <code>true</code>, if the response was successful.
+     * @throws Exception If the request could not be sent.
+     */
+    private boolean send(final int i) throws Exception {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int min = random.nextInt(1, 3800);
+        final String response;
+        switch (i % 8) {
+        case 0:
+        case 1:
+            response = get("?query=" + random.nextInt(1, 4000), null);
+            break;
+        case 2:
+            response = get("?min=" + min + "&max=" + (min + random.nextInt(1, 200)), null);
+            break;
+        case 3:
+            // the full range is far more expensive than the rest of the mix, so only send it occasionally.
+            response = i % 64 == 3 ? get("?min=1&max=3999", (i & 64) == 0 ? null : "gzip")
+                    : get("?min=" + min + "&max=" + (min + 100), "gzip");
+            break;
+        case 4:
+            response = get("?min=" + min + "&max=" + (min + 100) + "&format=" + FORMATS[(i / 8) % FORMATS.length],
+                    null);
+            break;
+        case 5:
+            response = get("?numeral=" + NUMERALS[(i / 8) % NUMERALS.length], null);
+            break;
+        case 6:
+            response = get("?min=" + min + "&max=" + (min + 50) + "&limit=20", null);
+            break;
+        default:
+            response = post("[" + random.nextInt(1, 4000) + "," + random.nextInt(1, 4000) + ","
+                    + random.nextInt(1, 4000) + "]");
+            break;
+        }
+        return response != null && response.startsWith("HTTP/1.1 200");
+    }
+
+    private String get(final String query, final String acceptEncoding) throws Exception {
+        StringBuilder request = new StringBuilder("GET ").append(NumeralServlet.SERVLET_PATH).append(query)
+                .append(" HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n");
+        if (acceptEncoding != null) {
+            request.append("Accept-Encoding: ").append(acceptEncoding).append("\r\n");
+        }
+        return connector.getResponse(request.append("\r\n").toString(), REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private String post(final String body) throws Exception {
+        String request = "POST " + NumeralServlet.SERVLET_PATH + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n"
+                + "Content-Type: application/json\r\nContent-Length: "
+                + body.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + body;
+        return connector.getResponse(request, REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.borland.numerals.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executor service which runs a bounded amount of tasks at a time, queues a
+ * bounded amount more, and rejects (throws
+ * {@link RejectedExecutionException}) the rest.
+ *
+ * @author chrismborland
+ */
+public interface BoundedExecutorService extends ExecutorService {
+
+    /**
+     * Get the (approximate) amount of tasks running.
+     *
+     * @return Running tasks.
+     */
+    public int getActiveCount();
+
+    /**
+     * Get the current amount of threads.
+     *
+     * @return Threads.
+     */
+    public int getPoolSize();
+
+    /**
+     * Get the maximum amount of tasks run at a time.
+     *
+     * @return Maximum running tasks.
+     */
+    public int getMaximumPoolSize();
+
+    /**
+     * Get the (approximate) amount of tasks completed.
+     *
+     * @return Completed tasks.
+     */
+    public long getCompletedTaskCount();
+
+    /**
+     * Get the (approximate) amount of tasks waiting to run.
+     *
+     * @return Queued tasks.
+     */
+    public int getQueueSize();
+
+    /**
+     * Get the amount of tasks which can (at least) still be queued before tasks
+     * are rejected.
+     *
+     * @return Remaining queue capacity.
+     */
+    public int getRemainingCapacity();
+
+}
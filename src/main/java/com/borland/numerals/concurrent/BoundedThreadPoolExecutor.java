@@ -0,0 +1,38 @@
+package com.borland.numerals.concurrent;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ThreadPoolExecutor} over a bounded queue (i.e.
+ * {@link java.util.concurrent.ArrayBlockingQueue}), as a
+ * {@link BoundedExecutorService}.
+ *
+ * @author chrismborland
+ */
+public class BoundedThreadPoolExecutor extends ThreadPoolExecutor implements BoundedExecutorService {
+
+    /**
+     * Public constructor. See
+     * {@link ThreadPoolExecutor#ThreadPoolExecutor(int, int, long, TimeUnit, BlockingQueue, ThreadFactory, RejectedExecutionHandler)}.
+     */
+    public BoundedThreadPoolExecutor(final int corePoolSize, final int maximumPoolSize, final long keepAliveTime,
+            final TimeUnit unit, final BlockingQueue<Runnable> workQueue, final ThreadFactory threadFactory,
+            final RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler);
+    }
+
+    @Override
+    public int getQueueSize() {
+        return getQueue().size();
+    }
+
+    @Override
+    public int getRemainingCapacity() {
+        return getQueue().remainingCapacity();
+    }
+
+}
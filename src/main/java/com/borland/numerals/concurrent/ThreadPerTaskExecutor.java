@@ -0,0 +1,154 @@
+package com.borland.numerals.concurrent;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link BoundedExecutorService} which starts a new thread for every task (on
+ * a thread-per-task executor, i.e. of virtual threads), rather than pooling
+ * threads. At most <code>maxConcurrency</code> tasks run at a time (bounded by
+ * a {@link Semaphore}); tasks beyond that wait for a permit on their own
+ * (parked) thread, which is the queue. Once <code>queueSize</code> tasks are
+ * waiting, further tasks are rejected, like a {@link BoundedThreadPoolExecutor}
+ * with a full queue.
+ *
+ * @author chrismborland
+ */
+public class ThreadPerTaskExecutor extends AbstractExecutorService implements BoundedExecutorService {
+
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final int queueSize;
+    private final Runnable rejectionListener;
+
+    // permits to run a task.
+    private final Semaphore permits;
+
+    // tasks accepted & not yet finished (running or waiting for a permit).
+    private final AtomicInteger tasks = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+
+    /**
+     * Public constructor.
+     *
+     * @param executor          Thread-per-task executor to start tasks on (see
+     *                          {@link ThreadSupport#newThreadPerTaskExecutor(String)}).
+     * @param maxConcurrency    Maximum tasks run at a time.
+     * @param queueSize         Maximum tasks waiting to run.
+     * @param rejectionListener Run for every rejected task, before throwing.
+     */
+    public ThreadPerTaskExecutor(final ExecutorService executor, final int maxConcurrency, final int queueSize,
+            final Runnable rejectionListener) {
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.queueSize = queueSize;
+        this.rejectionListener = rejectionListener;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        if (tasks.incrementAndGet() > maxConcurrency + queueSize) {
+            tasks.decrementAndGet();
+            reject("Executor saturated. [maxConcurrency = " + maxConcurrency + ", queueSize = " + queueSize + "]");
+        }
+        try {
+            executor.execute(() -> run(task));
+        } catch (RejectedExecutionException ree) {
+            // shut down.
+            tasks.decrementAndGet();
+            reject("Executor shut down.");
+        }
+    }
+
+    /**
+     * Runs a task once a permit is available.
+     */
+    private void run(final Runnable task) {
+        try {
+            permits.acquire();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+                completedTasks.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            // interrupted (shut down) while waiting to run.
+            Thread.currentThread().interrupt();
+        } finally {
+            tasks.decrementAndGet();
+        }
+    }
+
+    private void reject(final String message) {
+        rejectionListener.run();
+        throw new RejectedExecutionException(message);
+    }
+
+    @Override
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    @Override
+    public int getPoolSize() {
+        // a thread per task.
+        return tasks.get();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completedTasks.get();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return Math.max(0, tasks.get() - getActiveCount());
+    }
+
+    @Override
+    public int getRemainingCapacity() {
+        return Math.max(0, queueSize - Math.max(0, tasks.get() - maxConcurrency));
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.borland.numerals.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the threads used by the application.
+ * 
+ * This is the Java 8 version, which always uses platform threads. The
+ * application is packaged as a multi-release JAR; on Java 21+ this class is
+ * replaced by the version in <code>src/main/java21</code>, which uses virtual
+ * threads when {@link #VIRTUAL_THREADS_PROPERTY} is set to <code>true</code>.
+ * 
+ * @author chrismborland
+ */
+public final class ThreadSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadSupport.class);
+
+    /**
+     * System property to opt in to virtual threads (Java 21+).
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "numerals.virtualThreads";
+
+    static {
+        if (Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY)) {
+            LOG.warn("Virtual threads require Java 21+. Using platform threads.");
+        }
+    }
+
+    private ThreadSupport() {
+
+    }
+
+    /**
+     * Check to see if the application is running on virtual threads.
+     * 
+     * @return <code>true</code>, if using virtual threads. <code>false</code>,
+     *         otherwise.
+     */
+    public static boolean isVirtualThreads() {
+        return false;
+    }
+
+    /**
+     * Creates a thread factory for application work. Threads are named
+     * <code>namePrefix</code> followed by a counter, and never hold up JVM
+     * shutdown.
+     * 
+     * @param namePrefix Thread name prefix.
+     * @return Thread factory.
+     */
+    public static ThreadFactory newThreadFactory(final String namePrefix) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor which starts a new thread for each task. Only used
+     * with virtual threads (Java 21+), so on Java 8 idle (platform) threads are
+     * simply reused.
+     * 
+     * @param namePrefix Thread name prefix.
+     * @return Executor.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(final String namePrefix) {
+        return Executors.newCachedThreadPool(newThreadFactory(namePrefix));
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.borland.numerals.jfr;
+
+/**
+ * Java Flight Recorder event for a conversion by the conversion service.
+ *
+ * This is the Java 8 version, which records nothing. The application is
+ * packaged as a multi-release JAR; on Java 11+ this class is replaced by the
+ * version in <code>src/main/java11</code>, a JFR event recorded when the
+ * conversion takes longer than its threshold.
+ *
+ * Usage: {@link #begin()} & {@link #end()} around the conversion, then only
+ * when {@link #shouldCommit()}, set the fields & {@link #commit()}.
+ *
+ * @author chrismborland
+ */
+public class ConversionEvent {
+
+    // conversion kinds.
+    public static final String SINGLE = "single";
+    public static final String RANGE = "range";
+    public static final String BATCH = "batch";
+
+    /**
+     * Starts timing the event.
+     */
+    public void begin() {
+    }
+
+    /**
+     * Stops timing the event.
+     */
+    public void end() {
+    }
+
+    /**
+     * Check to see if the event should be committed (JFR is recording the event
+     * & it took longer than its threshold).
+     *
+     * @return <code>true</code>, if the event should be committed.
+     *         <code>false</code>, otherwise.
+     */
+    public boolean shouldCommit() {
+        return false;
+    }
+
+    /**
+     * Commits the event to the recording.
+     */
+    public void commit() {
+    }
+
+    /**
+     * @param kind       Conversion kind ({@link #SINGLE}, {@link #RANGE} or
+     *                   {@link #BATCH}).
+     * @param lowNumber  Lowest number converted.
+     * @param highNumber Highest number converted.
+     * @param width      Numbers converted.
+     */
+    public void setConversion(final String kind, final int lowNumber, final int highNumber, final int width) {
+    }
+
+    /**
+     * @param parallelism Range pool parallelism.
+     * @param blockSize   Numbers converted per fork/join block.
+     */
+    public void setRangePool(final int parallelism, final int blockSize) {
+    }
+
+    /**
+     * @param nanos Time waiting for a range pool worker.
+     */
+    public void setQueueWait(final long nanos) {
+    }
+
+    /**
+     * @param nanos Time converting, once picked up by a range pool worker.
+     */
+    public void setExecutionTime(final long nanos) {
+    }
+
+    /**
+     * @param successful Whether the conversion succeeded.
+     */
+    public void setSuccessful(final boolean successful) {
+    }
+
+}
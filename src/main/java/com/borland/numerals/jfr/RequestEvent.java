@@ -0,0 +1,77 @@
+package com.borland.numerals.jfr;
+
+/**
+ * Java Flight Recorder event for a numerals request.
+ *
+ * This is the Java 8 version, which records nothing. The application is
+ * packaged as a multi-release JAR; on Java 11+ this class is replaced by the
+ * version in <code>src/main/java11</code>, a JFR event recorded when the
+ * request takes longer than its threshold.
+ *
+ * Usage: {@link #begin()} & {@link #end()} around the request, then only when
+ * {@link #shouldCommit()}, set the fields & {@link #commit()}.
+ *
+ * @author chrismborland
+ */
+public class RequestEvent {
+
+    /**
+     * Starts timing the event.
+     */
+    public void begin() {
+    }
+
+    /**
+     * Stops timing the event.
+     */
+    public void end() {
+    }
+
+    /**
+     * Check to see if the event should be committed (JFR is recording the event
+     * & it took longer than its threshold).
+     *
+     * @return <code>true</code>, if the event should be committed.
+     *         <code>false</code>, otherwise.
+     */
+    public boolean shouldCommit() {
+        return false;
+    }
+
+    /**
+     * Commits the event to the recording.
+     */
+    public void commit() {
+    }
+
+    /**
+     * @param method HTTP method.
+     */
+    public void setMethod(final String method) {
+    }
+
+    /**
+     * @param mode Request mode (single, range, numeral, extended or batch).
+     */
+    public void setMode(final String mode) {
+    }
+
+    /**
+     * @param parameters Query string.
+     */
+    public void setParameters(final String parameters) {
+    }
+
+    /**
+     * @param status Response status.
+     */
+    public void setStatus(final int status) {
+    }
+
+    /**
+     * @param responseBytes Bytes written by the servlet (before compression).
+     */
+    public void setResponseBytes(final long responseBytes) {
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.borland.numerals.metrics;
+
+import com.borland.numerals.App;
+import com.borland.numerals.servlet.NumeralServlet;
+import com.codahale.metrics.Histogram;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.RequestLog;
+import org.eclipse.jetty.server.Response;
+
+/**
+ * Request log which records, per numeral response, the uncompressed size (as
+ * written by the servlet) and the size actually sent (after any compression),
+ * so bandwidth savings can be tracked. Called by Jetty once each response
+ * completes, including async responses.
+ * 
+ * @author chrismborland
+ */
+public class CompressionMetricsRequestLog implements RequestLog {
+
+    // metrics
+    private final Histogram uncompressedSizes = MetricsFactory
+            .histogram(App.METRIX_PREFIX + ".uncompressedResponseSizes");
+    private final Histogram compressedSizes = MetricsFactory.histogram(App.METRIX_PREFIX + ".compressedResponseSizes");
+
+    @Override
+    public void log(Request request, Response response) {
+        Object uncompressedSize = request.getAttribute(NumeralServlet.UNCOMPRESSED_SIZE_ATTRIBUTE);
+        if (uncompressedSize instanceof Long) {
+            uncompressedSizes.update((Long) uncompressedSize);
+            compressedSizes.update(response.getHttpChannel().getBytesWritten());
+        }
+    }
+
+}
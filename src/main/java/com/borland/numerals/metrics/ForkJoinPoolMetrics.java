@@ -0,0 +1,53 @@
+package com.borland.numerals.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+
+/**
+ * Gauges for a {@link ForkJoinPool}: active & running threads, pool size,
+ * parallelism, queued submissions (work waiting for the pool) & tasks, steals
+ * and utilization (active threads over parallelism). Register with a prefix,
+ * i.e. <code>registry.registerAll("numerals.rangePool", metrics)</code>.
+ * 
+ * @author chrismborland
+ */
+public class ForkJoinPoolMetrics implements MetricSet {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Public constructor.
+     * 
+     * @param pool Pool to measure.
+     */
+    public ForkJoinPoolMetrics(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("activeThreads", (Gauge<Integer>) pool::getActiveThreadCount);
+        metrics.put("runningThreads", (Gauge<Integer>) pool::getRunningThreadCount);
+        metrics.put("poolSize", (Gauge<Integer>) pool::getPoolSize);
+        metrics.put("parallelism", (Gauge<Integer>) pool::getParallelism);
+        metrics.put("queuedSubmissions", (Gauge<Integer>) pool::getQueuedSubmissionCount);
+        metrics.put("queuedTasks", (Gauge<Long>) pool::getQueuedTaskCount);
+        metrics.put("steals", (Gauge<Long>) pool::getStealCount);
+        metrics.put("utilization", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(pool.getActiveThreadCount(), pool.getParallelism());
+            }
+        });
+        return Collections.unmodifiableMap(metrics);
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.borland.numerals.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Reservoir backed by an <a href="http://hdrhistogram.org/">HdrHistogram</a>
+ * {@link Recorder}. Unlike the default (sampling) reservoir every value is
+ * recorded, within the configured amount of significant digits, so tail
+ * percentiles (i.e. p99.9) are not approximated from a sample.
+ *
+ * Snapshots are interval based: every <code>interval</code> the values
+ * recorded since the previous interval are swapped out of the recorder (which
+ * resets it) and become the snapshot. All readers (i.e. JMX &
+ * <code>/metrics</code>) see the same snapshot until the next interval, so
+ * they do not reset each other's values. Recording is wait-free.
+ *
+ * Intervals are rolled lazily, by the first read after an interval has
+ * passed. So if nothing reads the reservoir for longer than an interval, the
+ * next snapshot covers everything recorded since the last roll (possibly many
+ * intervals), rather than just the last interval.
+ *
+ * @author chrismborland
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private final Recorder recorder;
+    private final long intervalNanos;
+    private final Clock clock;
+
+    // tick of the last interval (read outside the lock).
+    private volatile long intervalStart;
+
+    // values recorded during the last interval.
+    private volatile Snapshot snapshot;
+
+    /**
+     * Public constructor.
+     *
+     * @param significantDigits Significant digits values are recorded with (0 -
+     *                          5).
+     * @param interval          Interval between snapshots.
+     * @param unit              Unit of <code>interval</code>.
+     */
+    public HdrHistogramReservoir(final int significantDigits, final long interval, final TimeUnit unit) {
+        this(significantDigits, interval, unit, Clock.defaultClock());
+    }
+
+    /**
+     * Package constructor.
+     *
+     * @param significantDigits Significant digits values are recorded with (0 -
+     *                          5).
+     * @param interval          Interval between snapshots.
+     * @param unit              Unit of <code>interval</code>.
+     * @param clock             Clock intervals are measured with.
+     */
+    HdrHistogramReservoir(final int significantDigits, final long interval, final TimeUnit unit, final Clock clock) {
+        // auto-resizing, so any (positive) value can be recorded.
+        this.recorder = new Recorder(significantDigits);
+        this.intervalNanos = unit.toNanos(interval);
+        this.clock = clock;
+        this.intervalStart = clock.getTick();
+        this.snapshot = new HdrHistogramSnapshot(recorder.getIntervalHistogram());
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(final long value) {
+        // negative values cannot be recorded.
+        recorder.recordValue(Math.max(0L, value));
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        if (clock.getTick() - intervalStart >= intervalNanos) {
+            synchronized (this) {
+                final long tick = clock.getTick();
+                if (tick - intervalStart >= intervalNanos) {
+                    snapshot = new HdrHistogramSnapshot(recorder.getIntervalHistogram());
+                    intervalStart = tick;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshot of an interval histogram.
+     */
+    private static class HdrHistogramSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        HdrHistogramSnapshot(final Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(final double quantile) {
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            return histogram.getValueAtPercentile(quantile * 100.0);
+        }
+
+        @Override
+        public long[] getValues() {
+            final long[] values = new long[size()];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                for (long count = value.getCountAtValueIteratedTo(); count > 0 && i < values.length; count--) {
+                    values[i++] = value.getValueIteratedTo();
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(final OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+
+    }
+
+}
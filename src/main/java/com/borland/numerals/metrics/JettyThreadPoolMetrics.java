@@ -0,0 +1,53 @@
+package com.borland.numerals.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+/**
+ * Gauges for Jetty's {@link QueuedThreadPool}: threads (total, idle, busy &
+ * maximum), queued jobs, whether the pool is low on threads, and utilization
+ * (busy threads over maximum threads). Register with a prefix, i.e.
+ * <code>registry.registerAll("numerals.jetty.threadPool", metrics)</code>.
+ * 
+ * @author chrismborland
+ */
+public class JettyThreadPoolMetrics implements MetricSet {
+
+    private final QueuedThreadPool threadPool;
+
+    /**
+     * Public constructor.
+     * 
+     * @param threadPool Thread pool to measure.
+     */
+    public JettyThreadPoolMetrics(final QueuedThreadPool threadPool) {
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("threads", (Gauge<Integer>) threadPool::getThreads);
+        metrics.put("idleThreads", (Gauge<Integer>) threadPool::getIdleThreads);
+        metrics.put("busyThreads", (Gauge<Integer>) threadPool::getBusyThreads);
+        metrics.put("maxThreads", (Gauge<Integer>) threadPool::getMaxThreads);
+        metrics.put("queueDepth", (Gauge<Integer>) threadPool::getQueueSize);
+        metrics.put("lowOnThreads", (Gauge<Boolean>) threadPool::isLowOnThreads);
+        metrics.put("utilization", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(threadPool.getBusyThreads(), threadPool.getMaxThreads());
+            }
+        });
+        return Collections.unmodifiableMap(metrics);
+    }
+
+}
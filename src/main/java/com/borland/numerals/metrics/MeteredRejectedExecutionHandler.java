@@ -0,0 +1,36 @@
+package com.borland.numerals.metrics;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import com.codahale.metrics.Meter;
+
+/**
+ * Rejected execution handler which marks a meter for every rejected task,
+ * then hands the task to another handler (i.e. to throw).
+ * 
+ * @author chrismborland
+ */
+public class MeteredRejectedExecutionHandler implements RejectedExecutionHandler {
+
+    private final Meter rejected;
+    private final RejectedExecutionHandler handler;
+
+    /**
+     * Public constructor.
+     * 
+     * @param rejected Meter of rejected tasks.
+     * @param handler  Handler of rejected tasks.
+     */
+    public MeteredRejectedExecutionHandler(final Meter rejected, final RejectedExecutionHandler handler) {
+        this.rejected = rejected;
+        this.handler = handler;
+    }
+
+    @Override
+    public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+        rejected.mark();
+        handler.rejectedExecution(task, executor);
+    }
+
+}
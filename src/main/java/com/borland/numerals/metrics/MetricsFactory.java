@@ -0,0 +1,379 @@
+package com.borland.numerals.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.borland.numerals.App;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates (or gets) timers, histograms & meters, which can be reset (i.e. to
+ * drop warm-up samples, see {@link #reset(MetricRegistry, MetricFilter)}).
+ * Timers & histograms use the reservoir configured for them.
+ * The reservoir is configured per metric with the
+ * <code>numerals.metrics.reservoir.&lt;metric&gt;</code> system property (i.e.
+ * <code>-Dnumerals.metrics.reservoir.numerals.singleConversions=hdr</code>),
+ * falling back to <code>numerals.metrics.reservoir</code>:
+ *
+ * <ul>
+ * <li><code>exponential</code> - (default) Dropwizard's exponentially decaying,
+ * sampling reservoir.</li>
+ * <li><code>hdr</code> - {@link HdrHistogramReservoir}, recording every value,
+ * with snapshots every <code>numerals.metrics.hdr.intervalSeconds</code>
+ * (default 60) recorded with <code>numerals.metrics.hdr.digits</code> (default
+ * 2) significant digits.</li>
+ * </ul>
+ *
+ * NOTE: The reservoir is chosen when the metric is first created, so every
+ * timer & histogram should be created here. Registries from
+ * {@link #newRegistry()} create them here even when asked directly (i.e. by
+ * the instrumented filter).
+ *
+ * @author chrismborland
+ */
+public final class MetricsFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsFactory.class);
+
+    // reservoir configuration.
+    public static final String RESERVOIR_PROPERTY = "numerals.metrics.reservoir";
+    public static final String HDR_INTERVAL_SECONDS_PROPERTY = "numerals.metrics.hdr.intervalSeconds";
+    public static final String HDR_DIGITS_PROPERTY = "numerals.metrics.hdr.digits";
+
+    // reservoirs.
+    public static final String EXPONENTIAL_RESERVOIR = "exponential";
+    public static final String HDR_RESERVOIR = "hdr";
+
+    private static final long DEFAULT_HDR_INTERVAL_SECONDS = 60L;
+    private static final int DEFAULT_HDR_DIGITS = 2;
+
+    private MetricsFactory() {
+    }
+
+    /**
+     * Creates a registry whose timers, histograms & meters are created by this
+     * factory, including those created through the registry itself.
+     *
+     * @return Registry.
+     */
+    public static MetricRegistry newRegistry() {
+        return new MetricRegistry() {
+            @Override
+            public Timer timer(final String name) {
+                return MetricsFactory.timer(this, name);
+            }
+
+            @Override
+            public Histogram histogram(final String name) {
+                return MetricsFactory.histogram(this, name);
+            }
+
+            @Override
+            public Meter meter(final String name) {
+                return MetricsFactory.meter(this, name);
+            }
+        };
+    }
+
+    /**
+     * Get (or create) a timer in the application's metrics.
+     *
+     * @param name Metric name.
+     * @return Timer.
+     */
+    public static Timer timer(final String name) {
+        return timer(App.metrics, name);
+    }
+
+    /**
+     * Get (or create) a timer.
+     *
+     * @param registry Metrics to get the timer from.
+     * @param name     Metric name.
+     * @return Timer.
+     */
+    public static Timer timer(final MetricRegistry registry, final String name) {
+        return registry.timer(name, () -> new ResettableTimer(() -> new Timer(reservoir(name))));
+    }
+
+    /**
+     * Get (or create) a histogram in the application's metrics.
+     *
+     * @param name Metric name.
+     * @return Histogram.
+     */
+    public static Histogram histogram(final String name) {
+        return histogram(App.metrics, name);
+    }
+
+    /**
+     * Get (or create) a histogram.
+     *
+     * @param registry Metrics to get the histogram from.
+     * @param name     Metric name.
+     * @return Histogram.
+     */
+    public static Histogram histogram(final MetricRegistry registry, final String name) {
+        return registry.histogram(name, () -> new ResettableHistogram(() -> new Histogram(reservoir(name))));
+    }
+
+    /**
+     * Get (or create) a meter in the application's metrics.
+     *
+     * @param name Metric name.
+     * @return Meter.
+     */
+    public static Meter meter(final String name) {
+        return meter(App.metrics, name);
+    }
+
+    /**
+     * Get (or create) a meter.
+     *
+     * @param registry Metrics to get the meter from.
+     * @param name     Metric name.
+     * @return Meter.
+     */
+    public static Meter meter(final MetricRegistry registry, final String name) {
+        return registry.meter(name, () -> new ResettableMeter(Meter::new));
+    }
+
+    /**
+     * Resets (clears the counts & samples of) every metric created here which
+     * matches a filter. Samples recorded while resetting may be lost.
+     *
+     * @param registry Metrics to reset.
+     * @param filter   Metrics to reset.
+     */
+    public static void reset(final MetricRegistry registry, final MetricFilter filter) {
+        for (Map.Entry<String, Metric> entry : registry.getMetrics().entrySet()) {
+            if (entry.getValue() instanceof Resettable && filter.matches(entry.getKey(), entry.getValue())) {
+                ((Resettable) entry.getValue()).reset();
+            }
+        }
+    }
+
+    /**
+     * Create the reservoir configured for a metric.
+     *
+     * @param name Metric name.
+     * @return Reservoir.
+     */
+    static Reservoir reservoir(final String name) {
+        final String reservoir = System.getProperty(RESERVOIR_PROPERTY + "." + name,
+                System.getProperty(RESERVOIR_PROPERTY, EXPONENTIAL_RESERVOIR));
+        if (HDR_RESERVOIR.equalsIgnoreCase(reservoir)) {
+            return new HdrHistogramReservoir(Integer.getInteger(HDR_DIGITS_PROPERTY, DEFAULT_HDR_DIGITS),
+                    Long.getLong(HDR_INTERVAL_SECONDS_PROPERTY, DEFAULT_HDR_INTERVAL_SECONDS), TimeUnit.SECONDS);
+        }
+        if (!EXPONENTIAL_RESERVOIR.equalsIgnoreCase(reservoir)) {
+            LOG.warn("Unknown reservoir, using {}. [metric = {}, reservoir = {}]", EXPONENTIAL_RESERVOIR, name,
+                    reservoir);
+        }
+        return new ExponentiallyDecayingReservoir();
+    }
+
+    /**
+     * Metric which can be reset.
+     */
+    private interface Resettable {
+
+        void reset();
+
+    }
+
+    /**
+     * Timer delegating to a timer which is replaced on reset.
+     */
+    private static final class ResettableTimer extends Timer implements Resettable {
+
+        private final Supplier<Timer> supplier;
+        private volatile Timer timer;
+
+        ResettableTimer(final Supplier<Timer> supplier) {
+            // the superclass' own reservoir is never used.
+            super(new SlidingWindowReservoir(1));
+            this.supplier = supplier;
+            this.timer = supplier.get();
+        }
+
+        @Override
+        public void reset() {
+            timer = supplier.get();
+        }
+
+        @Override
+        public void update(final long duration, final TimeUnit unit) {
+            timer.update(duration, unit);
+        }
+
+        @Override
+        public void update(final Duration duration) {
+            timer.update(duration);
+        }
+
+        @Override
+        public <T> T time(final Callable<T> event) throws Exception {
+            return timer.time(event);
+        }
+
+        @Override
+        public <T> T timeSupplier(final Supplier<T> event) {
+            return timer.timeSupplier(event);
+        }
+
+        @Override
+        public void time(final Runnable event) {
+            timer.time(event);
+        }
+
+        @Override
+        public Context time() {
+            return timer.time();
+        }
+
+        @Override
+        public long getCount() {
+            return timer.getCount();
+        }
+
+        @Override
+        public double getFifteenMinuteRate() {
+            return timer.getFifteenMinuteRate();
+        }
+
+        @Override
+        public double getFiveMinuteRate() {
+            return timer.getFiveMinuteRate();
+        }
+
+        @Override
+        public double getMeanRate() {
+            return timer.getMeanRate();
+        }
+
+        @Override
+        public double getOneMinuteRate() {
+            return timer.getOneMinuteRate();
+        }
+
+        @Override
+        public Snapshot getSnapshot() {
+            return timer.getSnapshot();
+        }
+
+    }
+
+    /**
+     * Histogram delegating to a histogram which is replaced on reset.
+     */
+    private static final class ResettableHistogram extends Histogram implements Resettable {
+
+        private final Supplier<Histogram> supplier;
+        private volatile Histogram histogram;
+
+        ResettableHistogram(final Supplier<Histogram> supplier) {
+            // the superclass' own reservoir is never used.
+            super(new SlidingWindowReservoir(1));
+            this.supplier = supplier;
+            this.histogram = supplier.get();
+        }
+
+        @Override
+        public void reset() {
+            histogram = supplier.get();
+        }
+
+        @Override
+        public void update(final int value) {
+            histogram.update(value);
+        }
+
+        @Override
+        public void update(final long value) {
+            histogram.update(value);
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public Snapshot getSnapshot() {
+            return histogram.getSnapshot();
+        }
+
+    }
+
+    /**
+     * Meter delegating to a meter which is replaced on reset.
+     */
+    private static final class ResettableMeter extends Meter implements Resettable {
+
+        private final Supplier<Meter> supplier;
+        private volatile Meter meter;
+
+        ResettableMeter(final Supplier<Meter> supplier) {
+            this.supplier = supplier;
+            this.meter = supplier.get();
+        }
+
+        @Override
+        public void reset() {
+            meter = supplier.get();
+        }
+
+        @Override
+        public void mark() {
+            meter.mark();
+        }
+
+        @Override
+        public void mark(final long n) {
+            meter.mark(n);
+        }
+
+        @Override
+        public long getCount() {
+            return meter.getCount();
+        }
+
+        @Override
+        public double getFifteenMinuteRate() {
+            return meter.getFifteenMinuteRate();
+        }
+
+        @Override
+        public double getFiveMinuteRate() {
+            return meter.getFiveMinuteRate();
+        }
+
+        @Override
+        public double getMeanRate() {
+            return meter.getMeanRate();
+        }
+
+        @Override
+        public double getOneMinuteRate() {
+            return meter.getOneMinuteRate();
+        }
+
+    }
+
+}
@@ -0,0 +1,248 @@
+package com.borland.numerals.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.borland.numerals.App;
+import com.borland.numerals.monitoring.HealthCheckContextListener;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.HealthCheckRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders the metrics registry & health check results in the Prometheus text
+ * exposition format (version 0.0.4), for scraping. Output is written straight
+ * to the response as each metric is read, so nothing is built up in memory.
+ *
+ * Metric names have every character Prometheus does not allow replaced with
+ * <code>_</code> (i.e. <code>numerals.requests</code> is
+ * <code>numerals_requests</code>) and are mapped as:
+ *
+ * <ul>
+ * <li>Gauges (numeric & boolean) & counters - gauge.</li>
+ * <li>Meters - counter (<code>_total</code>).</li>
+ * <li>Histograms - summary (quantiles, <code>_sum</code> &
+ * <code>_count</code>). The sum is estimated as the snapshot's mean times the
+ * count.</li>
+ * <li>Timers - summary in seconds (<code>_seconds</code>).</li>
+ * <li>Health checks - gauge <code>numerals_healthCheck_healthy</code> (1 or
+ * 0), labelled by <code>check</code>.</li>
+ * </ul>
+ *
+ * Metrics whose sanitized names collide with a metric already written (i.e.
+ * <code>a.b</code> & <code>a_b</code>) are skipped, since Prometheus rejects
+ * a scrape with duplicate metrics.
+ *
+ * @author chrismborland
+ */
+public class PrometheusMetricsServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrometheusMetricsServlet.class);
+
+    // metrics path.
+    public static final String SERVLET_PATH = "/metrics";
+
+    // content type of the text exposition format.
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // name of the health check gauge.
+    static final String HEALTH_CHECK_METRIC = App.METRIX_PREFIX + "_healthCheck_healthy";
+
+    // quantiles of histograms & timers, with their labels.
+    private static final double[] QUANTILES = { 0.5, 0.75, 0.95, 0.98, 0.99, 0.999 };
+    private static final String[] QUANTILE_LABELS = { "{quantile=\"0.5\"} ", "{quantile=\"0.75\"} ",
+            "{quantile=\"0.95\"} ", "{quantile=\"0.98\"} ", "{quantile=\"0.99\"} ", "{quantile=\"0.999\"} " };
+
+    private static final double SECONDS_PER_NANO = 1.0 / TimeUnit.SECONDS.toNanos(1);
+
+    private final MetricRegistry registry;
+    private final HealthCheckRegistry healthChecks;
+
+    /**
+     * Default constructor. Renders the application's metrics & health checks.
+     */
+    public PrometheusMetricsServlet() {
+        this(App.metrics, HealthCheckContextListener.healthMetrics);
+    }
+
+    /**
+     * Public constructor.
+     *
+     * @param registry     Metrics to render.
+     * @param healthChecks Health checks to render.
+     */
+    public PrometheusMetricsServlet(final MetricRegistry registry, final HealthCheckRegistry healthChecks) {
+        this.registry = registry;
+        this.healthChecks = healthChecks;
+    }
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-store");
+        write(response.getWriter());
+    }
+
+    /**
+     * Writes every metric & health check.
+     *
+     * @param out Writer to write to.
+     * @throws IOException
+     */
+    void write(final Writer out) throws IOException {
+        // sample names written so far, to skip colliding metrics.
+        final Set<String> written = new HashSet<String>();
+        for (Map.Entry<String, Gauge> entry : registry.getGauges().entrySet()) {
+            final Object value = entry.getValue().getValue();
+            if (value instanceof Number) {
+                writeGauge(out, written, entry.getKey(), ((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                writeGauge(out, written, entry.getKey(), (Boolean) value ? 1 : 0);
+            }
+        }
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            // counters can go down (i.e. active requests), so they are gauges.
+            writeGauge(out, written, entry.getKey(), entry.getValue().getCount());
+        }
+        for (Map.Entry<String, Meter> entry : registry.getMeters().entrySet()) {
+            final String name = sanitize(entry.getKey()) + "_total";
+            if (claim(written, entry.getKey(), name)) {
+                writeHeader(out, name, entry.getKey(), "counter");
+                writeSample(out, name, "", entry.getValue().getCount());
+            }
+        }
+        for (Map.Entry<String, Histogram> entry : registry.getHistograms().entrySet()) {
+            final Histogram histogram = entry.getValue();
+            writeSummary(out, written, sanitize(entry.getKey()), entry.getKey(), histogram.getSnapshot(), 1.0,
+                    histogram.getCount());
+        }
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            final Timer timer = entry.getValue();
+            writeSummary(out, written, sanitize(entry.getKey()) + "_seconds", entry.getKey(), timer.getSnapshot(),
+                    SECONDS_PER_NANO, timer.getCount());
+        }
+        // async health checks return their last (cached) result.
+        final Map<String, HealthCheck.Result> results = healthChecks.runHealthChecks();
+        if (!results.isEmpty() && claim(written, "health checks", HEALTH_CHECK_METRIC)) {
+            writeHeader(out, HEALTH_CHECK_METRIC, "health check status", "gauge");
+            for (Map.Entry<String, HealthCheck.Result> entry : results.entrySet()) {
+                writeSample(out, HEALTH_CHECK_METRIC, "{check=\"" + escape(entry.getKey()) + "\"} ",
+                        entry.getValue().isHealthy() ? 1 : 0);
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeGauge(final Writer out, final Set<String> written, final String metric,
+            final double value) throws IOException {
+        final String name = sanitize(metric);
+        if (claim(written, metric, name)) {
+            writeHeader(out, name, metric, "gauge");
+            writeSample(out, name, "", value);
+        }
+    }
+
+    private static void writeSummary(final Writer out, final Set<String> written, final String name,
+            final String metric, final Snapshot snapshot, final double scale, final long count) throws IOException {
+        if (!claim(written, metric, name, name + "_sum", name + "_count")) {
+            return;
+        }
+        writeHeader(out, name, metric, "summary");
+        for (int i = 0; i < QUANTILES.length; i++) {
+            writeSample(out, name, QUANTILE_LABELS[i], snapshot.getValue(QUANTILES[i]) * scale);
+        }
+        // the reservoir only holds samples, so the sum is estimated from their mean.
+        writeSample(out, name + "_sum", "", snapshot.getMean() * count * scale);
+        writeSample(out, name + "_count", "", count);
+    }
+
+    /**
+     * Claims the sample names of a metric, unless any of them were already
+     * written (a sanitized name collision).
+     *
+     * @return Whether the metric should be written.
+     */
+    private static boolean claim(final Set<String> written, final String metric, final String... names) {
+        for (String name : names) {
+            if (written.contains(name)) {
+                LOG.debug("Skipping metric, name already written. [metric = {}, name = {}]", metric, name);
+                return false;
+            }
+        }
+        for (String name : names) {
+            written.add(name);
+        }
+        return true;
+    }
+
+    private static void writeHeader(final Writer out, final String name, final String help, final String type)
+            throws IOException {
+        out.write("# HELP ");
+        out.write(name);
+        out.write(' ');
+        out.write(help);
+        out.write("\n# TYPE ");
+        out.write(name);
+        out.write(' ');
+        out.write(type);
+        out.write('\n');
+    }
+
+    private static void writeSample(final Writer out, final String name, final String labels, final double value)
+            throws IOException {
+        out.write(name);
+        out.write(labels.isEmpty() ? " " : labels);
+        if (Double.isNaN(value)) {
+            out.write("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.write(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.write(Long.toString((long) value));
+        } else {
+            out.write(Double.toString(value));
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Replaces every character not allowed in a Prometheus metric name with
+     * <code>_</code>.
+     */
+    static String sanitize(final String name) {
+        final StringBuilder sanitized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            final boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':'
+                    || (c >= '0' && c <= '9' && i > 0);
+            sanitized.append(allowed ? c : '_');
+        }
+        return sanitized.toString();
+    }
+
+    // escapes a label value.
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+}
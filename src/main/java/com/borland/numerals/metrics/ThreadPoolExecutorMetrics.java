@@ -0,0 +1,53 @@
+package com.borland.numerals.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.borland.numerals.concurrent.BoundedExecutorService;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+
+/**
+ * Gauges for a {@link BoundedExecutorService} (a thread pool, or thread per
+ * task executor): active threads, pool size, queue
+ * depth & remaining capacity, completed tasks and utilization (active threads
+ * over maximum pool size). Register with a prefix, i.e.
+ * <code>registry.registerAll("numerals.conversionExecutor", metrics)</code>.
+ * 
+ * @author chrismborland
+ */
+public class ThreadPoolExecutorMetrics implements MetricSet {
+
+    private final BoundedExecutorService executor;
+
+    /**
+     * Public constructor.
+     * 
+     * @param executor Executor to measure.
+     */
+    public ThreadPoolExecutorMetrics(final BoundedExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("activeThreads", (Gauge<Integer>) executor::getActiveCount);
+        metrics.put("poolSize", (Gauge<Integer>) executor::getPoolSize);
+        metrics.put("maxPoolSize", (Gauge<Integer>) executor::getMaximumPoolSize);
+        metrics.put("queueDepth", (Gauge<Integer>) executor::getQueueSize);
+        metrics.put("queueRemaining", (Gauge<Integer>) executor::getRemainingCapacity);
+        metrics.put("completedTasks", (Gauge<Long>) executor::getCompletedTaskCount);
+        metrics.put("utilization", new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(executor.getActiveCount(), executor.getMaximumPoolSize());
+            }
+        });
+        return Collections.unmodifiableMap(metrics);
+    }
+
+}
@@ -10,13 +10,11 @@ import com.codahale.metrics.servlets.HealthCheckServlet;
  */
 public class HealthCheckContextListener extends HealthCheckServlet.ContextListener {
 
-    // health check registry.
+    // health check registry. async (scheduled) checks run on its scheduler.
     public static HealthCheckRegistry healthMetrics = new HealthCheckRegistry();
 
-    static {
-        // numeral servlet health check.
-        healthMetrics.register("numerals-servlet", new NumeralsHealthCheck());
-    }
+    // name of the in-process numerals health check (registered by the app, with its server).
+    public static final String NUMERALS_HEALTH_CHECK = "numerals-engine";
 
     @Override
     protected HealthCheckRegistry getHealthCheckRegistry() {
@@ -0,0 +1,106 @@
+package com.borland.numerals.monitoring;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.borland.numerals.App;
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralService;
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.annotation.Async;
+
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.eclipse.jetty.server.Server;
+
+/**
+ * In-process health check for the numerals service. Checks the live numeral
+ * service (the one the servlet converts with, without the servlet's timers)
+ * with a known single conversion & a small range, the conversion executor &
+ * range pool, and the Jetty server, its connectors & thread pool, without
+ * making a request (so neither request nor conversion metrics are affected).
+ *
+ * Runs on the health check registry's scheduler; <code>/healthcheck</code>
+ * reads the cached result of the last run.
+ *
+ * @author chrismborland
+ */
+@Async(period = NumeralsEngineHealthCheck.PERIOD_SECONDS, unit = TimeUnit.SECONDS,
+        scheduleType = Async.ScheduleType.FIXED_DELAY)
+public class NumeralsEngineHealthCheck extends HealthCheck {
+
+    // seconds between checks.
+    static final long PERIOD_SECONDS = 5L;
+
+    // known single conversion (covering three subtractive pairs).
+    private static final int KNOWN_NUMBER = 1994;
+    private static final String KNOWN_NUMERAL = "MCMXCIV";
+
+    // known range (low number first).
+    private static final String[] KNOWN_RANGE = { "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX", "X" };
+
+    // server to check.
+    private final Server server;
+
+    // service to check.
+    private final NumeralService numeralService;
+
+    /**
+     * Public constructor.
+     *
+     * @param server         Server to check.
+     * @param numeralService Service to check (the one serving requests, untimed).
+     */
+    public NumeralsEngineHealthCheck(final Server server, final NumeralService numeralService) {
+        this.server = server;
+        this.numeralService = numeralService;
+    }
+
+    @Override
+    protected Result check() throws Exception {
+        // conversion engine: a known single conversion.
+        final NumeralPair pair = numeralService.convertToNumeral(KNOWN_NUMBER);
+        if (pair == null || !KNOWN_NUMERAL.equals(pair.getNumeral())) {
+            return Result.unhealthy("Invalid conversion of [%d]: [%s].", KNOWN_NUMBER,
+                    pair == null ? null : pair.getNumeral());
+        }
+        // conversion engine: a small range.
+        final Set<NumeralPair> range = numeralService.convertToNumeral(1, KNOWN_RANGE.length);
+        if (range == null || range.size() != KNOWN_RANGE.length) {
+            return Result.unhealthy("Invalid range conversion of [1, %d].", KNOWN_RANGE.length);
+        }
+        for (NumeralPair rangePair : range) {
+            final int number = rangePair.getNumber();
+            if (number < 1 || number > KNOWN_RANGE.length
+                    || !KNOWN_RANGE[number - 1].equals(rangePair.getNumeral())) {
+                return Result.unhealthy("Invalid range conversion of [%d]: [%s].", number, rangePair.getNumeral());
+            }
+        }
+        // conversion executor & range pool.
+        if (App.conversionExecutor.isShutdown() || App.rangePool.isShutdown()) {
+            return Result.unhealthy("Conversion executor shut down.");
+        }
+        final int queueRemaining = App.conversionExecutor.getRemainingCapacity();
+        if (queueRemaining == 0) {
+            return Result.unhealthy("Conversion executor saturated.");
+        }
+        // server, connectors & thread pool.
+        if (!server.isRunning()) {
+            return Result.unhealthy("Server not running. [state = %s]", server.getState());
+        }
+        for (Connector connector : server.getConnectors()) {
+            if (!connector.isRunning()
+                    || (connector instanceof NetworkConnector && !((NetworkConnector) connector).isOpen())) {
+                return Result.unhealthy("Connector not open. [connector = %s]", connector);
+            }
+        }
+        if (server.getThreadPool().isLowOnThreads()) {
+            return Result.unhealthy("Server low on threads.");
+        }
+        return Result.builder().healthy().withDetail("activeConversions", App.conversionExecutor.getActiveCount())
+                .withDetail("queuedConversions", App.conversionExecutor.getQueueSize())
+                .withDetail("queueRemaining", queueRemaining)
+                .withDetail("queuedRanges", App.rangePool.getQueuedSubmissionCount()).build();
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.borland.numerals.monitoring;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Readiness endpoint for load balancers. Responds <code>503</code> until the
+ * server has warmed up & is accepting traffic, then <code>200</code> until the
+ * server starts stopping.
+ *
+ * @author chrismborland
+ */
+public class ReadinessServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    // readiness path.
+    public static final String SERVLET_PATH = "/ready";
+
+    // whether the server is ready for traffic.
+    private static volatile boolean ready;
+
+    /**
+     * Set whether the server is ready for traffic.
+     *
+     * @param ready Readiness.
+     */
+    public static void setReady(final boolean ready) {
+        ReadinessServlet.ready = ready;
+    }
+
+    /**
+     * Check whether the server is ready for traffic.
+     *
+     * @return Readiness.
+     */
+    public static boolean isReady() {
+        return ready;
+    }
+
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        final boolean ready = isReady();
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentType("text/plain");
+        response.setStatus(ready ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.getWriter().write(ready ? "ready" : "not ready");
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.borland.numerals.service;
+
+import java.io.IOException;
+
+/**
+ * Service interface for converting numbers beyond the standard form range to
+ * numeral representations.
+ * 
+ * Ranges are streamed to a {@link NumeralConsumer}, instead of being returned,
+ * so that memory use does not depend on the width of the range.
+ * 
+ * @author chrismborland
+ */
+public interface ExtendedNumeralService {
+
+    /**
+     * Converts the <code>number</code> to a numeral.
+     * 
+     * Caller is responsible for validating number via {@link #isEligible(long)}
+     * prior to calling.
+     * 
+     * @param number Number to convert.
+     * @return Numeral representing the number.
+     */
+    public String convertToNumeral(final long number);
+
+    /**
+     * Converts all numbers between <code>lowNumber</code> and
+     * <code>highNumber</code> to numerals, passing each one to
+     * <code>consumer</code> in order from lowest to highest.
+     * 
+     * Caller is responsible for validating number range via
+     * {@link #isRangeEligible(long, long)} prior to calling.
+     * 
+     * @param lowNumber  Low boundary of range of numbers to convert.
+     * @param highNumber High boundary of range of numbers to convert.
+     * @param consumer   Consumer receiving each converted numeral.
+     * @throws IOException If the consumer fails. Conversion stops at the failed
+     *                     number.
+     */
+    public void convertToNumerals(final long lowNumber, final long highNumber, final NumeralConsumer consumer)
+            throws IOException;
+
+    /**
+     * Check to see if the number is eligible for the underlying numeral service.
+     * 
+     * @param number Number to check.
+     * @return <code>true</code>, if eligible. <code>false</code>, otherwise.
+     */
+    public boolean isEligible(final long number);
+
+    /**
+     * Checks to see if the number range is eligble for the underlying numeral
+     * service.
+     * 
+     * @param lowNumber  Low end of range number.
+     * @param highNumber High end of range number.
+     * @return <code>true</code>, if number range is eligible. <code>false</code>,
+     *         otherwise.
+     */
+    public boolean isRangeEligible(final long lowNumber, final long highNumber);
+
+}
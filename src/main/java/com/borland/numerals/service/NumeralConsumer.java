@@ -0,0 +1,26 @@
+package com.borland.numerals.service;
+
+import java.io.IOException;
+
+/**
+ * Callback for receiving numerals as they are converted. Used to stream
+ * conversions which are too large to hold in memory.
+ * 
+ * @author chrismborland
+ */
+public interface NumeralConsumer {
+
+    /**
+     * Accepts a converted number.
+     * 
+     * NOTE: <code>numeral</code> may be reused by the caller once this method
+     * returns. Copy it (i.e. <code>toString()</code>) if it needs to be kept.
+     * 
+     * @param number  Number.
+     * @param numeral Numeral for <code>number</code>.
+     * @throws IOException If the consumer fails to handle the numeral. Stops the
+     *                     conversion.
+     */
+    public void accept(final long number, final CharSequence numeral) throws IOException;
+
+}
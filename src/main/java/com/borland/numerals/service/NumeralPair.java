@@ -38,6 +38,25 @@ public class NumeralPair implements Comparable<NumeralPair> {
         return number;
     }
 
+    /**
+     * Get number portion of pair as a primitive. Prefer over
+     * {@link #getNumber()} on hot paths to avoid boxing.
+     * 
+     * @return Number.
+     */
+    public int numberValue() {
+        return number;
+    }
+
+    /**
+     * Get the length of the numeral portion of the pair.
+     * 
+     * @return Numeral length, or 0 if no numeral is set.
+     */
+    public int numeralLength() {
+        return numeral == null ? 0 : numeral.length();
+    }
+
     /**
      * Set number portion of the pair.
      * 
@@ -67,12 +86,12 @@ public class NumeralPair implements Comparable<NumeralPair> {
 
     @Override
     public int compareTo(NumeralPair o) {
-        return this.getNumber().compareTo(o.getNumber());
+        return Integer.compare(this.number, o.number);
     }
 
     @Override
     public String toString() {
-        return Integer.toString(getNumber()) + ": " + getNumeral();
+        return Integer.toString(number) + ": " + getNumeral();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,250 @@
+package com.borland.numerals.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compact, ordered result of a range conversion. Rather than one object per
+ * number, the range holds its first number plus the numerals packed back to
+ * back as ASCII bytes with an offset index (number <code>n</code> is at index
+ * <code>n - lowNumber</code>).
+ * 
+ * Consumers can walk the numerals without creating objects via
+ * {@link #forEachNumeral(NumeralVisitor)}, or stream {@link NumeralPair}s
+ * (created as they are consumed) via {@link #stream()}. The stream's
+ * spliterator is sized & splits evenly, so parallel streams divide the range
+ * cleanly.
+ * 
+ * NOTE: The packed arrays are not copied and may be shared (i.e. with a
+ * precomputed table), so a range is read-only.
+ * 
+ * @author chrismborland
+ */
+public final class NumeralRange {
+
+    private final int lowNumber;
+    private final int size;
+    private final byte[] numerals;
+    private final int[] offsets;
+    private final int offsetIndex;
+
+    /**
+     * Public constructor. The numeral for index <code>i</code> spans
+     * <code>offsets[offsetIndex + i]</code> to
+     * <code>offsets[offsetIndex + i + 1]</code> in <code>numerals</code>.
+     * 
+     * @param lowNumber   First number in the range.
+     * @param size        Amount of numbers in the range.
+     * @param numerals    Packed ASCII numerals.
+     * @param offsets     Offsets of each numeral in <code>numerals</code>, plus
+     *                    one trailing end offset.
+     * @param offsetIndex Index into <code>offsets</code> of the first numeral.
+     */
+    public NumeralRange(final int lowNumber, final int size, final byte[] numerals, final int[] offsets,
+            final int offsetIndex) {
+        this.lowNumber = lowNumber;
+        this.size = size;
+        this.numerals = numerals;
+        this.offsets = offsets;
+        this.offsetIndex = offsetIndex;
+    }
+
+    /**
+     * Get the first (lowest) number in the range.
+     * 
+     * @return Low number.
+     */
+    public int getLowNumber() {
+        return lowNumber;
+    }
+
+    /**
+     * Get the last (highest) number in the range.
+     * 
+     * @return High number.
+     */
+    public int getHighNumber() {
+        return lowNumber + size - 1;
+    }
+
+    /**
+     * Get the amount of numbers in the range.
+     * 
+     * @return Size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the length of the numeral at <code>index</code>.
+     * 
+     * @param index Index in the range (0 to size - 1).
+     * @return Numeral length.
+     */
+    public int getNumeralLength(final int index) {
+        return offsets[offsetIndex + index + 1] - offsets[offsetIndex + index];
+    }
+
+    /**
+     * Get the numeral at <code>index</code>. Creates a new string; prefer
+     * {@link #writeNumeral(int, byte[], int)} or
+     * {@link #forEachNumeral(NumeralVisitor)} on hot paths.
+     * 
+     * @param index Index in the range (0 to size - 1).
+     * @return Numeral.
+     */
+    public String getNumeral(final int index) {
+        return new String(numerals, offsets[offsetIndex + index], getNumeralLength(index), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes the numeral at <code>index</code> into <code>buffer</code>.
+     * 
+     * @param index  Index in the range (0 to size - 1).
+     * @param buffer Buffer to write to.
+     * @param offset Offset into buffer to start writing at.
+     * @return Number of bytes written.
+     */
+    public int writeNumeral(final int index, final byte[] buffer, final int offset) {
+        final int length = getNumeralLength(index);
+        System.arraycopy(numerals, offsets[offsetIndex + index], buffer, offset, length);
+        return length;
+    }
+
+    /**
+     * Writes the numeral at <code>index</code> into <code>buffer</code> at its
+     * current position.
+     * 
+     * @param index  Index in the range (0 to size - 1).
+     * @param buffer Buffer to write to.
+     * @return Number of bytes written.
+     */
+    public int writeNumeral(final int index, final ByteBuffer buffer) {
+        final int length = getNumeralLength(index);
+        buffer.put(numerals, offsets[offsetIndex + index], length);
+        return length;
+    }
+
+    /**
+     * Visits every number & numeral in the range, in order, without creating any
+     * objects.
+     * 
+     * @param visitor Visitor to call for each number.
+     * @throws E If the visitor fails. Stops visiting.
+     */
+    public <E extends Exception> void forEachNumeral(final NumeralVisitor<E> visitor) throws E {
+        for (int i = 0; i < size; i++) {
+            final int offset = offsets[offsetIndex + i];
+            visitor.visit(lowNumber + i, numerals, offset, offsets[offsetIndex + i + 1] - offset);
+        }
+    }
+
+    /**
+     * Streams the range as numeral pairs, in order. Pairs are created as they are
+     * consumed.
+     * 
+     * @return Sequential stream of numeral pairs.
+     */
+    public Stream<NumeralPair> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Get a sized, ordered spliterator over the range.
+     * 
+     * @return Spliterator of numeral pairs.
+     */
+    public Spliterator<NumeralPair> spliterator() {
+        return new RangeSpliterator(0, size);
+    }
+
+    /**
+     * Visitor for walking the numerals in a range.
+     * 
+     * @param <E> Exception the visitor may throw.
+     */
+    public interface NumeralVisitor<E extends Exception> {
+
+        /**
+         * Visits a number in the range.
+         * 
+         * NOTE: <code>numerals</code> is the range's packed (possibly shared)
+         * array and must not be modified.
+         * 
+         * @param number   Number.
+         * @param numerals Packed numeral bytes.
+         * @param offset   Offset of this number's numeral in
+         *                 <code>numerals</code>.
+         * @param length   Length of this number's numeral.
+         * @throws E If the visitor fails.
+         */
+        public void visit(int number, byte[] numerals, int offset, int length) throws E;
+
+    }
+
+    /**
+     * Spliterator over a slice of the range. Splits in half by index.
+     */
+    private final class RangeSpliterator implements Spliterator<NumeralPair> {
+
+        private int index;
+        private final int end;
+
+        private RangeSpliterator(final int index, final int end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super NumeralPair> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(new NumeralPair(lowNumber + index, getNumeral(index)));
+            index++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super NumeralPair> action) {
+            for (; index < end; index++) {
+                action.accept(new NumeralPair(lowNumber + index, getNumeral(index)));
+            }
+        }
+
+        @Override
+        public Spliterator<NumeralPair> trySplit() {
+            final int middle = (index + end) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            final Spliterator<NumeralPair> prefix = new RangeSpliterator(index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | ORDERED | SORTED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super NumeralPair> getComparator() {
+            // natural ordering.
+            return null;
+        }
+
+    }
+
+}
@@ -1,10 +1,15 @@
 package com.borland.numerals.service;
 
+import java.util.List;
 import java.util.Set;
 
 /**
  * Service interface for converting numbers to numeral representations.
  * 
+ * Implementations which run conversions on a bounded executor may throw a
+ * {@link java.util.concurrent.RejectedExecutionException} from any conversion
+ * method when they can not accept more work.
+ * 
  * @author chrismborland
  */
 public interface NumeralService {
@@ -36,6 +41,56 @@ public interface NumeralService {
      */
     public Set<NumeralPair> convertToNumeral(final int lowNumber, final int highNumber);
 
+    /**
+     * Converts all numbers between <code>lowNumber</code> and
+     * <code>highNumber</code> to numerals, returning them as a compact range
+     * rather than one object per number.
+     * 
+     * Caller is responsible for validating number range via
+     * {@link #isRangeEligible(int, int)} prior to calling.
+     * 
+     * @param lowNumber  Low boundary of range of numbers to convert.
+     * @param highNumber High boundary of range of numbers to convert.
+     * @return Range of numerals, ordered from lowest to highest. Returns
+     *         <code>null</code> on error.
+     */
+    public NumeralRange convertToNumeralRange(final int lowNumber, final int highNumber);
+
+    /**
+     * Converts a batch of <code>numbers</code> to numerals. Numbers may be in any
+     * order and may contain duplicates; each distinct number is only converted
+     * once.
+     * 
+     * Caller is responsible for validating each number via
+     * {@link #isEligible(int)} prior to calling.
+     * 
+     * @param numbers Numbers to convert.
+     * @return List of numeral pairs, in the same order as <code>numbers</code>.
+     *         Returns <code>null</code> on error.
+     */
+    public List<NumeralPair> convertToNumerals(final int[] numbers);
+
+    /**
+     * Converts the <code>numeral</code> back to a number.
+     * 
+     * Caller is responsible for validating numeral via
+     * {@link #isValidNumeral(CharSequence)} prior to calling.
+     * 
+     * @param numeral Numeral to convert.
+     * @return A numeral pair representing the numeral and associated number.
+     *         Returns <code>null</code> on error.
+     */
+    public NumeralPair parseNumeral(final CharSequence numeral);
+
+    /**
+     * Check to see if the numeral is a valid (canonical) numeral for the
+     * underlying numeral service.
+     * 
+     * @param numeral Numeral to check.
+     * @return <code>true</code>, if valid. <code>false</code>, otherwise.
+     */
+    public boolean isValidNumeral(final CharSequence numeral);
+
     /**
      * Check to see if the number is eligible for the underlying numeral service.
      * 
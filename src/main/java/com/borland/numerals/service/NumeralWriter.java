@@ -0,0 +1,89 @@
+package com.borland.numerals.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Low-level interface for writing numerals directly into caller supplied
+ * buffers. Unlike {@link NumeralService}, implementations do not create any
+ * objects per conversion, which makes them suitable for serializers & batch
+ * jobs converting large amounts of numbers.
+ * 
+ * Numerals are written as ASCII characters (one byte per character).
+ * 
+ * @author chrismborland
+ */
+public interface NumeralWriter {
+
+    /**
+     * Get the length of the longest numeral the writer can produce. Buffers of
+     * this size are guaranteed to hold any single numeral.
+     * 
+     * @return Maximum numeral length.
+     */
+    public int getMaxLength();
+
+    /**
+     * Get the length of the numeral for <code>number</code>.
+     * 
+     * Caller is responsible for validating number via {@link #isEligible(int)}
+     * prior to calling.
+     * 
+     * @param number Number to measure.
+     * @return Length of the numeral.
+     */
+    public int getLength(final int number);
+
+    /**
+     * Writes the numeral for <code>number</code> into <code>buffer</code>
+     * starting at <code>offset</code>.
+     * 
+     * Caller is responsible for validating number via {@link #isEligible(int)}
+     * prior to calling.
+     * 
+     * @param number Number to convert.
+     * @param buffer Buffer to write to.
+     * @param offset Offset into buffer to start writing at.
+     * @return Number of bytes written.
+     * @throws IndexOutOfBoundsException If the buffer does not have room for
+     *                                   the numeral.
+     */
+    public int write(final int number, final byte[] buffer, final int offset);
+
+    /**
+     * Writes the numeral for <code>number</code> into <code>buffer</code> at its
+     * current position. The position is advanced by the number of bytes written.
+     * 
+     * Caller is responsible for validating number via {@link #isEligible(int)}
+     * prior to calling.
+     * 
+     * @param number Number to convert.
+     * @param buffer Buffer to write to.
+     * @return Number of bytes written.
+     * @throws java.nio.BufferOverflowException If the buffer does not have room
+     *                                          for the numeral.
+     */
+    public int write(final int number, final ByteBuffer buffer);
+
+    /**
+     * Appends the numeral for <code>number</code> to <code>appendable</code>.
+     * 
+     * Caller is responsible for validating number via {@link #isEligible(int)}
+     * prior to calling.
+     * 
+     * @param number     Number to convert.
+     * @param appendable Destination to append to.
+     * @return Number of characters appended.
+     * @throws IOException If the appendable fails.
+     */
+    public int write(final int number, final Appendable appendable) throws IOException;
+
+    /**
+     * Check to see if the number is eligible for the underlying numeral writer.
+     * 
+     * @param number Number to check.
+     * @return <code>true</code>, if eligible. <code>false</code>, otherwise.
+     */
+    public boolean isEligible(final int number);
+
+}
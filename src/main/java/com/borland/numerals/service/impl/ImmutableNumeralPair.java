@@ -0,0 +1,33 @@
+package com.borland.numerals.service.impl;
+
+import com.borland.numerals.service.NumeralPair;
+
+/**
+ * Numeral pair which can not be modified after creation. Used for pairs that
+ * are shared between callers (i.e. precomputed tables).
+ * 
+ * @author chrismborland
+ */
+class ImmutableNumeralPair extends NumeralPair {
+
+    /**
+     * Package constructor.
+     * 
+     * @param number  Number.
+     * @param numeral Numeral.
+     */
+    ImmutableNumeralPair(int number, String numeral) {
+        super(number, numeral);
+    }
+
+    @Override
+    public void setNumber(Integer number) {
+        throw new UnsupportedOperationException("Shared numeral pairs can not be modified.");
+    }
+
+    @Override
+    public void setNumeral(String numeral) {
+        throw new UnsupportedOperationException("Shared numeral pairs can not be modified.");
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.borland.numerals.service.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
+import com.borland.numerals.service.NumeralService;
+
+/**
+ * Service which looks numerals up in a memory-mapped numeral table file (see
+ * {@link NumeralTableFile}). Nothing is computed at startup, and every process
+ * mapping the same file shares the same page cache pages. Lookups only use
+ * absolute reads of the mapped buffer, so the service is thread safe.
+ * 
+ * @author chrismborland
+ */
+public class MappedNumeralServiceImpl implements NumeralService {
+
+    private final ByteBuffer table;
+    private final int minNumber;
+    private final int maxNumber;
+    private final int dataPosition;
+
+    /**
+     * Public constructor.
+     * 
+     * @param table Mapped (validated) numeral table, from
+     *              {@link NumeralTableFile#map(Path)}.
+     */
+    public MappedNumeralServiceImpl(final ByteBuffer table) {
+        this.table = table;
+        this.minNumber = table.getInt(NumeralTableFile.MIN_NUMBER_POSITION);
+        this.maxNumber = table.getInt(NumeralTableFile.MAX_NUMBER_POSITION);
+        this.dataPosition = NumeralTableFile.HEADER_SIZE + NumeralTableFile.indexSize(minNumber, maxNumber);
+    }
+
+    /**
+     * Creates a service over the numeral table file at <code>path</code>,
+     * writing the file first if needed.
+     * 
+     * @param path Path of the table file.
+     * @return Service.
+     * @throws IOException
+     */
+    public static MappedNumeralServiceImpl open(final Path path) throws IOException {
+        return new MappedNumeralServiceImpl(NumeralTableFile.mapOrCreate(path));
+    }
+
+    @Override
+    public NumeralPair convertToNumeral(final int number) {
+        return new NumeralPair(number, numeral(number));
+    }
+
+    @Override
+    public Set<NumeralPair> convertToNumeral(final int lowNumber, final int highNumber) {
+        final NumeralPair[] pairs = new NumeralPair[highNumber - lowNumber + 1];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new NumeralPair(lowNumber + i, numeral(lowNumber + i));
+        }
+        return new NumeralPairArraySet(pairs, 0, pairs.length);
+    }
+
+    /**
+     * The range's numerals are copied out of the mapped table in one block.
+     */
+    @Override
+    public NumeralRange convertToNumeralRange(final int lowNumber, final int highNumber) {
+        final int size = highNumber - lowNumber + 1;
+        final int[] offsets = new int[size + 1];
+        final int base = offset(lowNumber);
+        for (int i = 0; i <= size; i++) {
+            offsets[i] = offset(lowNumber + i) - base;
+        }
+        final ByteBuffer data = table.duplicate();
+        data.limit(dataPosition + base + offsets[size]).position(dataPosition + base);
+        final byte[] numerals = new byte[offsets[size]];
+        data.get(numerals);
+        return new NumeralRange(lowNumber, size, numerals, offsets, 0);
+    }
+
+    /**
+     * Returned list is read-only.
+     */
+    @Override
+    public List<NumeralPair> convertToNumerals(final int[] numbers) {
+        final List<NumeralPair> pairs = new ArrayList<NumeralPair>(numbers.length);
+        for (int number : numbers) {
+            pairs.add(new NumeralPair(number, numeral(number)));
+        }
+        return Collections.unmodifiableList(pairs);
+    }
+
+    @Override
+    public NumeralPair parseNumeral(final CharSequence numeral) {
+        final int number = StandardFormNumeralParser.parse(numeral);
+        return number == StandardFormNumeralParser.INVALID || !isEligible(number) ? null
+                : new NumeralPair(number, numeral(number));
+    }
+
+    @Override
+    public boolean isValidNumeral(final CharSequence numeral) {
+        final int number = StandardFormNumeralParser.parse(numeral);
+        return number != StandardFormNumeralParser.INVALID && isEligible(number);
+    }
+
+    @Override
+    public boolean isEligible(final int number) {
+        return number >= minNumber && number <= maxNumber;
+    }
+
+    @Override
+    public boolean isRangeEligible(final int lowNumber, final int highNumber) {
+        return isEligible(lowNumber) && isEligible(highNumber) && lowNumber < highNumber;
+    }
+
+    /**
+     * Get the offset (in the table's data) of the numeral for
+     * <code>number</code>.
+     */
+    private int offset(final int number) {
+        return table.getInt(NumeralTableFile.HEADER_SIZE + (number - minNumber) * Integer.BYTES);
+    }
+
+    /**
+     * Read the numeral for <code>number</code> from the table.
+     */
+    private String numeral(final int number) {
+        final int offset = dataPosition + offset(number);
+        final char[] numeral = new char[offset(number + 1) + dataPosition - offset];
+        for (int i = 0; i < numeral.length; i++) {
+            numeral[i] = (char) table.get(offset + i);
+        }
+        return new String(numeral);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.borland.numerals.service.impl;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.borland.numerals.service.NumeralPair;
+
+/**
+ * Read-only set view over a slice of an ordered numeral pair array. Creating
+ * the view does not copy the array, so ranges can be handed out in constant
+ * time.
+ * 
+ * NOTE: The backing array must already be ordered from lowest to highest
+ * number and contain no duplicates.
+ * 
+ * @author chrismborland
+ */
+class NumeralPairArraySet extends AbstractSet<NumeralPair> {
+
+    private final NumeralPair[] pairs;
+    private final int fromIndex;
+    private final int toIndex;
+
+    /**
+     * Package constructor.
+     * 
+     * @param pairs     Ordered pairs backing the view.
+     * @param fromIndex First index in the view (inclusive).
+     * @param toIndex   Last index in the view (exclusive).
+     */
+    NumeralPairArraySet(final NumeralPair[] pairs, final int fromIndex, final int toIndex) {
+        this.pairs = pairs;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    @Override
+    public Iterator<NumeralPair> iterator() {
+        return new Iterator<NumeralPair>() {
+
+            private int index = fromIndex;
+
+            @Override
+            public boolean hasNext() {
+                return index < toIndex;
+            }
+
+            @Override
+            public NumeralPair next() {
+                if (index >= toIndex) {
+                    throw new NoSuchElementException();
+                }
+                return pairs[index++];
+            }
+
+        };
+    }
+
+    @Override
+    public int size() {
+        return toIndex - fromIndex;
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.borland.numerals.service.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binary, on-disk format of the standard form numeral table, meant to be
+ * memory-mapped read-only so every JVM on a host shares the same page cache
+ * pages. All values are big-endian.
+ * 
+ * <pre>
+ * header  magic (int, "NUMT"), version (int), minNumber (int), maxNumber (int),
+ *         dataLength (int), crc32 of index & data (long)
+ * index   (maxNumber - minNumber + 2) offsets (int) into data; the numeral for
+ *         n spans index[n - minNumber] to index[n - minNumber + 1]
+ * data    numerals packed back to back as ASCII bytes
+ * </pre>
+ * 
+ * The table is written by a build step (see {@link #main(String[])}) or on
+ * first start, and checked (magic, version, size & checksum) when mapped.
+ * 
+ * @author chrismborland
+ */
+public final class NumeralTableFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NumeralTableFile.class);
+
+    // "NUMT"
+    static final int MAGIC = 0x4E554D54;
+    static final int VERSION = 1;
+
+    // header field positions.
+    static final int MIN_NUMBER_POSITION = 8;
+    static final int MAX_NUMBER_POSITION = 12;
+    static final int DATA_LENGTH_POSITION = 16;
+    static final int CRC_POSITION = 20;
+    static final int HEADER_SIZE = 28;
+
+    private NumeralTableFile() {
+
+    }
+
+    /**
+     * Writes the standard form numeral table to a file.
+     * 
+     * @param args Path of the file to write.
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: NumeralTableFile <path>");
+            System.exit(1);
+        }
+        write(Paths.get(args[0]));
+    }
+
+    /**
+     * Writes the standard form numeral table to <code>path</code>. The table is
+     * written to a temporary file & moved into place, so other processes never
+     * map a partial table.
+     * 
+     * @param path Path of the file to write.
+     * @throws IOException
+     */
+    public static void write(final Path path) throws IOException {
+        final int minNumber = StandardFormNumeralServiceImpl.MIN_NUMERAL;
+        final int maxNumber = StandardFormNumeralServiceImpl.MAX_NUMERAL;
+        final byte[] data = StandardFormNumeralTable.NUMERALS;
+        final ByteBuffer table = ByteBuffer.allocate(HEADER_SIZE + indexSize(minNumber, maxNumber) + data.length)
+                .order(ByteOrder.BIG_ENDIAN);
+        table.putInt(MAGIC).putInt(VERSION).putInt(minNumber).putInt(maxNumber).putInt(data.length).putLong(0L);
+        for (int i = minNumber; i <= maxNumber + 1; i++) {
+            table.putInt(StandardFormNumeralTable.OFFSETS[i]);
+        }
+        table.put(data);
+        table.putLong(CRC_POSITION, checksum(table));
+        table.flip();
+
+        final Path directory = path.toAbsolutePath().getParent();
+        final Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (table.hasRemaining()) {
+                    channel.write(table);
+                }
+                channel.force(true);
+            }
+            // temp files are private; the table is meant to be shared.
+            if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-r--r--"));
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        LOG.info("Wrote numeral table. [path = {}, size = {}]", path, table.limit());
+    }
+
+    /**
+     * Maps a numeral table file read-only.
+     * 
+     * @param path Path of the table file.
+     * @return Read-only buffer over the whole file.
+     * @throws IOException If the file can not be read, or is not a valid table.
+     */
+    public static ByteBuffer map(final Path path) throws IOException {
+        final ByteBuffer table;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the mapping remains valid once the channel is closed.
+            table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+        }
+        validate(path, table);
+        return table;
+    }
+
+    /**
+     * Maps a numeral table file read-only, writing it first if it does not
+     * exist (or is not a valid table).
+     * 
+     * @param path Path of the table file.
+     * @return Read-only buffer over the whole file.
+     * @throws IOException
+     */
+    public static ByteBuffer mapOrCreate(final Path path) throws IOException {
+        if (Files.exists(path)) {
+            try {
+                return map(path);
+            } catch (IOException ioe) {
+                LOG.warn("Invalid numeral table, rewriting. [path = {}]", path, ioe);
+            }
+        }
+        write(path);
+        return map(path);
+    }
+
+    /**
+     * Checks the header, size & checksum of a table.
+     */
+    private static void validate(final Path path, final ByteBuffer table) throws IOException {
+        if (table.limit() < HEADER_SIZE || table.getInt(0) != MAGIC) {
+            throw new IOException("Not a numeral table: " + path);
+        }
+        if (table.getInt(4) != VERSION) {
+            throw new IOException("Unsupported numeral table version " + table.getInt(4) + ": " + path);
+        }
+        final int minNumber = table.getInt(MIN_NUMBER_POSITION);
+        final int maxNumber = table.getInt(MAX_NUMBER_POSITION);
+        final int dataLength = table.getInt(DATA_LENGTH_POSITION);
+        if (minNumber < 1 || maxNumber < minNumber || dataLength < 0
+                || table.limit() != (long) HEADER_SIZE + indexSize(minNumber, maxNumber) + dataLength) {
+            throw new IOException("Corrupt numeral table header: " + path);
+        }
+        if (table.getLong(CRC_POSITION) != checksum(table)) {
+            throw new IOException("Numeral table checksum mismatch: " + path);
+        }
+    }
+
+    /**
+     * Get the CRC32 of a table's index & data.
+     */
+    private static long checksum(final ByteBuffer table) {
+        final ByteBuffer body = table.duplicate();
+        body.limit(body.capacity()).position(HEADER_SIZE);
+        final CRC32 crc = new CRC32();
+        crc.update(body);
+        return crc.getValue();
+    }
+
+    /**
+     * Get the size (bytes) of the index for a table.
+     */
+    static int indexSize(final int minNumber, final int maxNumber) {
+        return (maxNumber - minNumber + 2) * Integer.BYTES;
+    }
+
+}
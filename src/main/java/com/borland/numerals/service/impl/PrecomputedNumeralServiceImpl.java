@@ -0,0 +1,100 @@
+package com.borland.numerals.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
+import com.borland.numerals.service.NumeralService;
+
+/**
+ * Service which converts numbers to standard form Roman numerals using a table
+ * computed once, when the class is loaded. Since the standard form only covers
+ * 1-3999, every possible answer is kept in memory and conversions become array
+ * lookups (no threads, no allocation, no timing; {@link TimedNumeralServiceImpl}
+ * times them where requests are served).
+ * 
+ * @author chrismborland
+ */
+public class PrecomputedNumeralServiceImpl implements NumeralService {
+
+    /**
+     * Table of all standard form numeral pairs, indexed by number. Index 0 is
+     * unused.
+     */
+    private static final NumeralPair[] NUMERAL_TABLE = new NumeralPair[StandardFormNumeralServiceImpl.MAX_NUMERAL + 1];
+
+    static {
+        for (int i = StandardFormNumeralServiceImpl.MIN_NUMERAL; i <= StandardFormNumeralServiceImpl.MAX_NUMERAL; i++) {
+            NUMERAL_TABLE[i] = new ImmutableNumeralPair(i, new String(StandardFormNumeralTable.NUMERALS,
+                    StandardFormNumeralTable.offset(i), StandardFormNumeralTable.length(i), StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Returned pairs are shared between callers and can not be modified.
+     */
+    @Override
+    public NumeralPair convertToNumeral(final int number) {
+        return NUMERAL_TABLE[number];
+    }
+
+    /**
+     * Returned set is a read-only view of the shared table.
+     */
+    @Override
+    public Set<NumeralPair> convertToNumeral(final int lowNumber, final int highNumber) {
+        return new NumeralPairArraySet(NUMERAL_TABLE, lowNumber, highNumber + 1);
+    }
+
+    /**
+     * Returned range is a view of the shared packed table; nothing is copied.
+     */
+    @Override
+    public NumeralRange convertToNumeralRange(final int lowNumber, final int highNumber) {
+        return new NumeralRange(lowNumber, highNumber - lowNumber + 1, StandardFormNumeralTable.NUMERALS,
+                StandardFormNumeralTable.OFFSETS, lowNumber);
+    }
+
+    /**
+     * Duplicates resolve to the same shared pair, so no extra work is needed to
+     * remove them. Returned list is read-only.
+     */
+    @Override
+    public List<NumeralPair> convertToNumerals(final int[] numbers) {
+        final NumeralPair[] pairs = new NumeralPair[numbers.length];
+        for (int i = 0; i < numbers.length; i++) {
+            pairs[i] = NUMERAL_TABLE[numbers[i]];
+        }
+        return Collections.unmodifiableList(Arrays.asList(pairs));
+    }
+
+    /**
+     * Returned pairs are shared between callers and can not be modified.
+     */
+    @Override
+    public NumeralPair parseNumeral(final CharSequence numeral) {
+        final int number = StandardFormNumeralParser.parse(numeral);
+        return number == StandardFormNumeralParser.INVALID ? null : NUMERAL_TABLE[number];
+    }
+
+    @Override
+    public boolean isValidNumeral(final CharSequence numeral) {
+        return StandardFormNumeralParser.parse(numeral) != StandardFormNumeralParser.INVALID;
+    }
+
+    @Override
+    public boolean isEligible(final int number) {
+        return number >= StandardFormNumeralServiceImpl.MIN_NUMERAL
+                && number <= StandardFormNumeralServiceImpl.MAX_NUMERAL;
+    }
+
+    @Override
+    public boolean isRangeEligible(final int lowNumber, final int highNumber) {
+        return isEligible(lowNumber) && isEligible(highNumber) && lowNumber < highNumber;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.borland.numerals.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -18,6 +19,13 @@ public class StandardFormNumeralCallable implements Callable<NumeralPair> {
      */
     public static final Map<Integer, String> numeralMap = new LinkedHashMap<Integer, String>();
 
+    /**
+     * Numeral map values & (ASCII) symbols, largest first, for converting
+     * without creating objects.
+     */
+    private static final int[] VALUES;
+    private static final byte[][] SYMBOLS;
+
     /**
      * Populate integer to numeral map. Entries are added from largest to smallest
      * as we will be looking for the largest possible match, while traversing our
@@ -41,6 +49,13 @@ public class StandardFormNumeralCallable implements Callable<NumeralPair> {
         numeralMap.put(5, "V");
         numeralMap.put(4, "IV");
         numeralMap.put(1, "I");
+        VALUES = new int[numeralMap.size()];
+        SYMBOLS = new byte[numeralMap.size()][];
+        int i = 0;
+        for (final Map.Entry<Integer, String> entry : numeralMap.entrySet()) {
+            VALUES[i] = entry.getKey();
+            SYMBOLS[i++] = entry.getValue().getBytes(StandardCharsets.US_ASCII);
+        }
     }
 
     private Integer numberToConvert;
@@ -68,7 +83,7 @@ public class StandardFormNumeralCallable implements Callable<NumeralPair> {
      * @param number Current number being converted.
      * @param sb     String builder to append numerals while converting.
      */
-    private void getNumeral(int number, StringBuilder sb) {
+    private static void getNumeral(int number, StringBuilder sb) {
         // check if done.
         if (number > 0) {
             // not done.  loop map to find largest mapped numeral.
@@ -85,11 +100,62 @@ public class StandardFormNumeralCallable implements Callable<NumeralPair> {
         }
     }
 
+    /**
+     * Converts a number to its standard form numeral on the calling thread.
+     * 
+     * @param number Number to convert.
+     * @return Numeral representation of <code>number</code>.
+     */
+    public static String toNumeral(final int number) {
+        StringBuilder sb = new StringBuilder();
+        getNumeral(number, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Get the length of the numeral for a number, without converting it.
+     * 
+     * @param number Number to measure.
+     * @return Length of the numeral.
+     */
+    static int length(final int number) {
+        int length = 0;
+        int remainder = number;
+        for (int i = 0; remainder > 0; i++) {
+            while (remainder >= VALUES[i]) {
+                length += SYMBOLS[i].length;
+                remainder -= VALUES[i];
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Converts a number to its standard form numeral on the calling thread,
+     * writing it as ASCII bytes straight into <code>buffer</code> (no objects
+     * are created).
+     * 
+     * @param number Number to convert.
+     * @param buffer Buffer to write to.
+     * @param offset Offset into buffer to start writing at.
+     * @return Number of bytes written.
+     */
+    static int write(final int number, final byte[] buffer, final int offset) {
+        int position = offset;
+        int remainder = number;
+        for (int i = 0; remainder > 0; i++) {
+            while (remainder >= VALUES[i]) {
+                System.arraycopy(SYMBOLS[i], 0, buffer, position, SYMBOLS[i].length);
+                position += SYMBOLS[i].length;
+                remainder -= VALUES[i];
+            }
+        }
+        return position - offset;
+    }
+
     @Override
     public NumeralPair call() throws Exception {
-        StringBuilder sb = new StringBuilder();
-        getNumeral(numberToConvert, sb);
-        return new NumeralPair(numberToConvert, sb.toString());
+        return new NumeralPair(numberToConvert, toNumeral(numberToConvert));
     }
 
 }
\ No newline at end of file
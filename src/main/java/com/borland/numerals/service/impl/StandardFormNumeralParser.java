@@ -0,0 +1,169 @@
+package com.borland.numerals.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Table driven parser for standard form Roman numerals.
+ * 
+ * Standard form numerals are a sequence of decades (thousands, hundreds, tens
+ * & ones), where each decade is one of a handful of symbol patterns. At class
+ * load time, the patterns are derived by converting each digit of each decade
+ * with {@link StandardFormNumeralCallable} (and therefore its numeral map) and
+ * compiled into a small deterministic state machine. Parsing is then a single
+ * pass over the characters with one table lookup per character, so
+ * non-canonical forms (i.e. <code>IIII</code>, <code>IC</code>) are rejected as
+ * soon as an unexpected symbol is seen.
+ * 
+ * @author chrismborland
+ */
+final class StandardFormNumeralParser {
+
+    /**
+     * Returned when a numeral is not a valid standard form numeral.
+     */
+    static final int INVALID = -1;
+
+    // symbol index for each ASCII character (-1 if not a numeral symbol).
+    private static final int[] SYMBOLS = new int[128];
+
+    // number of distinct numeral symbols.
+    private static final int SYMBOL_COUNT;
+
+    // next state for each (state, symbol), -1 if the symbol is not allowed.
+    private static final int[] TRANSITIONS;
+
+    // value added to the result for each (state, symbol) transition.
+    private static final int[] DELTAS;
+
+    // whether parsing may stop in each state.
+    private static final boolean[] ACCEPTING;
+
+    // initial state (nothing parsed yet).
+    private static final int START = 0;
+
+    static {
+        // index all symbols used by the numeral map.
+        Arrays.fill(SYMBOLS, -1);
+        int symbolCount = 0;
+        for (final String numeral : StandardFormNumeralCallable.numeralMap.values()) {
+            for (int i = 0; i < numeral.length(); i++) {
+                if (SYMBOLS[numeral.charAt(i)] < 0) {
+                    SYMBOLS[numeral.charAt(i)] = symbolCount++;
+                }
+            }
+        }
+        SYMBOL_COUNT = symbolCount;
+
+        // build a trie of digit patterns for each decade, highest decade first.
+        final List<Node> nodes = new ArrayList<Node>();
+        final Node start = new Node(-1, 0);
+        nodes.add(start);
+        final List<Node> roots = new ArrayList<Node>();
+        int decade = 0;
+        for (int power = 1000; power >= 1; power /= 10) {
+            final Node root = new Node(decade, 0);
+            roots.add(root);
+            for (int digit = 1; digit <= 9 && digit * power <= StandardFormNumeralServiceImpl.MAX_NUMERAL; digit++) {
+                final String pattern = StandardFormNumeralCallable.toNumeral(digit * power);
+                Node node = root;
+                for (int i = 0; i < pattern.length(); i++) {
+                    final int symbol = SYMBOLS[pattern.charAt(i)];
+                    if (node.children[symbol] == null) {
+                        node.children[symbol] = new Node(decade, -1);
+                        nodes.add(node.children[symbol]);
+                    }
+                    node = node.children[symbol];
+                }
+                node.value = digit * power;
+            }
+            decade++;
+        }
+
+        // flatten the tries into transition tables.
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.get(i).state = i;
+        }
+        TRANSITIONS = new int[nodes.size() * SYMBOL_COUNT];
+        DELTAS = new int[nodes.size() * SYMBOL_COUNT];
+        ACCEPTING = new boolean[nodes.size()];
+        Arrays.fill(TRANSITIONS, -1);
+        for (final Node node : nodes) {
+            final boolean complete = node == start || node.value >= 0;
+            ACCEPTING[node.state] = node != start && node.value >= 0;
+            for (int symbol = 0; symbol < SYMBOL_COUNT; symbol++) {
+                final int index = node.state * SYMBOL_COUNT + symbol;
+                // continue the current decade.
+                if (node != start && node.children[symbol] != null) {
+                    TRANSITIONS[index] = node.children[symbol].state;
+                    DELTAS[index] = Math.max(node.children[symbol].value, 0) - Math.max(node.value, 0);
+                }
+                if (!complete) {
+                    continue;
+                }
+                // or start one of the following decades (skipped decades are zero).
+                for (int next = node.decade + 1; next < roots.size(); next++) {
+                    final Node child = roots.get(next).children[symbol];
+                    if (child != null) {
+                        if (TRANSITIONS[index] >= 0) {
+                            throw new IllegalStateException("Ambiguous numeral map symbol: " + symbol);
+                        }
+                        TRANSITIONS[index] = child.state;
+                        DELTAS[index] = Math.max(child.value, 0);
+                    }
+                }
+            }
+        }
+    }
+
+    private StandardFormNumeralParser() {
+
+    }
+
+    /**
+     * Parses a standard form numeral.
+     * 
+     * @param numeral Numeral to parse.
+     * @return Number represented by <code>numeral</code>, or {@link #INVALID} if
+     *         it is not a valid standard form numeral.
+     */
+    static int parse(final CharSequence numeral) {
+        if (numeral == null || numeral.length() == 0 || numeral.length() > StandardFormNumeralTable.MAX_LENGTH) {
+            return INVALID;
+        }
+        int state = START;
+        int number = 0;
+        for (int i = 0; i < numeral.length(); i++) {
+            final char c = numeral.charAt(i);
+            if (c >= SYMBOLS.length || SYMBOLS[c] < 0) {
+                return INVALID;
+            }
+            final int index = state * SYMBOL_COUNT + SYMBOLS[c];
+            if (TRANSITIONS[index] < 0) {
+                return INVALID;
+            }
+            number += DELTAS[index];
+            state = TRANSITIONS[index];
+        }
+        return ACCEPTING[state] ? number : INVALID;
+    }
+
+    /**
+     * Trie node used while building the state machine.
+     */
+    private static final class Node {
+
+        private final int decade;
+        private final Node[] children = new Node[SYMBOL_COUNT];
+        private int value;
+        private int state;
+
+        private Node(final int decade, final int value) {
+            this.decade = decade;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.borland.numerals.service.impl;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join task for converting a range of numbers to standard form Roman
+ * numerals. The range is split in half until it is no larger than the block
+ * size, then each block is converted sequentially straight into its slot of a
+ * preallocated, packed result (see
+ * {@link com.borland.numerals.service.NumeralRange}). Results are therefore in
+ * order without a sorting step, and no objects are created per number.
+ * 
+ * @author chrismborland
+ */
+class StandardFormNumeralRangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] numerals;
+    private final int[] offsets;
+    private final int lowNumber;
+    private final int fromIndex;
+    private final int toIndex;
+    private final int blockSize;
+
+    /**
+     * Package constructor.
+     * 
+     * @param numerals  Packed result numerals, sized to hold every numeral.
+     * @param offsets   Offset of each index's numeral in <code>numerals</code>.
+     *                  Index 0 holds <code>lowNumber</code>.
+     * @param lowNumber Number stored at index 0.
+     * @param fromIndex First index to convert (inclusive).
+     * @param toIndex   Last index to convert (exclusive).
+     * @param blockSize Largest number of indexes converted without splitting.
+     */
+    StandardFormNumeralRangeTask(final byte[] numerals, final int[] offsets, final int lowNumber,
+            final int fromIndex, final int toIndex, final int blockSize) {
+        this.numerals = numerals;
+        this.offsets = offsets;
+        this.lowNumber = lowNumber;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    protected void compute() {
+        if (toIndex - fromIndex <= blockSize) {
+            // small enough.  convert the block sequentially.
+            for (int i = fromIndex; i < toIndex; i++) {
+                StandardFormNumeralCallable.write(lowNumber + i, numerals, offsets[i]);
+            }
+        } else {
+            // split in half & convert both halves in parallel.
+            final int middle = (fromIndex + toIndex) >>> 1;
+            invokeAll(new StandardFormNumeralRangeTask(numerals, offsets, lowNumber, fromIndex, middle, blockSize),
+                    new StandardFormNumeralRangeTask(numerals, offsets, lowNumber, middle, toIndex, blockSize));
+        }
+    }
+
+}
@@ -1,18 +1,24 @@
 package com.borland.numerals.service.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import com.borland.numerals.App;
+import com.borland.numerals.concurrent.BoundedExecutorService;
+import com.borland.numerals.jfr.ConversionEvent;
+import com.borland.numerals.metrics.MetricsFactory;
 import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
 import com.borland.numerals.service.NumeralService;
+import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 
 import org.slf4j.Logger;
@@ -20,7 +26,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Service is used to convert numbers to the Roman numeral equivalent using the
- * standard form.
+ * standard form. Single & batch conversions run on the application's shared,
+ * bounded {@link App#conversionExecutor}; range conversions are split into
+ * blocks on the shared {@link App#rangePool}. When either can not take the
+ * work, a {@link RejectedExecutionException} is thrown to the caller.
+ * Conversions are not timed here; see {@link TimedNumeralServiceImpl}.
  * 
  * @author chrismborland
  */
@@ -28,12 +38,18 @@ public class StandardFormNumeralServiceImpl implements NumeralService {
 
     public static final Logger LOG = LoggerFactory.getLogger(StandardFormNumeralServiceImpl.class);
 
-    // metrics
-    private final Timer singleResponses = App.metrics.timer(App.METRIX_PREFIX + ".singleConversions");
-    private final Timer multipleResponses = App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions");
+    // range pool metrics: time waiting for a worker vs converting, and rejections.
+    private final Timer rangeQueueWaits = MetricsFactory.timer(App.RANGE_POOL_METRICS + ".queueWait");
+    private final Timer rangeExecutions = MetricsFactory.timer(App.RANGE_POOL_METRICS + ".execution");
+    private final Meter rangeRejections = App.metrics.meter(App.RANGE_POOL_METRICS + ".rejected");
 
-    // thread pool size for handling range requests.
-    private static int THREAD_POOL_SIZE = 10;
+    // numbers converted per fork/join block in range conversions.
+    private static final int RANGE_BLOCK_SIZE = Integer.getInteger(App.RANGE_BLOCK_SIZE_PROPERTY,
+            App.DEFAULT_RANGE_BLOCK_SIZE);
+
+    // range conversions allowed to wait for the range pool before rejecting.
+    private static final int RANGE_MAX_QUEUED = Integer.getInteger(App.RANGE_MAX_QUEUED_PROPERTY,
+            App.DEFAULT_RANGE_MAX_QUEUED);
 
     // standard form numeral service boundaries.
     public static final int MIN_NUMERAL = 1;
@@ -41,59 +57,184 @@ public class StandardFormNumeralServiceImpl implements NumeralService {
 
     @Override
     public NumeralPair convertToNumeral(final int number) {
-        // start timer.
-        final Timer.Context timer = singleResponses.time();
+        final ConversionEvent event = new ConversionEvent();
+        event.begin();
         NumeralPair pair = null;
-        ExecutorService executorService = null;
         try {
-            executorService = Executors.newSingleThreadExecutor();
-            Future<NumeralPair> future = executorService.submit(new StandardFormNumeralCallable(number));
+            checkInterrupted();
+            Future<NumeralPair> future = App.conversionExecutor.submit(new StandardFormNumeralCallable(number));
             pair = future.get();
         } catch (InterruptedException | ExecutionException e) {
             LOG.warn("Failed to get execution result.", e);
         } finally {
-            if (executorService != null) {
-                executorService.shutdown();
-            }
+            // record the event, even when rejected.
+            commit(event, ConversionEvent.SINGLE, number, number, 1, pair != null);
         }
-        // stop timer.
-        timer.stop();
         return pair;
     }
 
     @Override
     public Set<NumeralPair> convertToNumeral(final int lowNumber, final int highNumber) {
-        // start timer.
-        final Timer.Context timer = multipleResponses.time();
-        Set<NumeralPair> pairs = new TreeSet<NumeralPair>();
-        ExecutorService executorService = null;
-        final List<Callable<NumeralPair>> callables = new ArrayList<Callable<NumeralPair>>();
+        // convert into a packed range, then create the pairs.
+        final NumeralRange range = convertToNumeralRange(lowNumber, highNumber);
+        if (range == null) {
+            return null;
+        }
+        final NumeralPair[] pairs = new NumeralPair[range.size()];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new NumeralPair(lowNumber + i, range.getNumeral(i));
+        }
+        return new NumeralPairArraySet(pairs, 0, pairs.length);
+    }
+
+    @Override
+    public NumeralRange convertToNumeralRange(final int lowNumber, final int highNumber) {
+        final ConversionEvent event = new ConversionEvent();
+        event.begin();
+        final ForkJoinPool pool = App.rangePool;
+        final int size = highNumber - lowNumber + 1;
+        NumeralRange result = null;
+        try {
+            checkInterrupted();
+            // reject, rather than queue indefinitely, if the pool is backed up.
+            if (pool.getQueuedSubmissionCount() >= RANGE_MAX_QUEUED) {
+                rangeRejections.mark();
+                throw new RejectedExecutionException("Range pool saturated. [queued = "
+                        + pool.getQueuedSubmissionCount() + "]");
+            }
+            // size the packed result up front, so blocks write their numerals straight into place.
+            final int[] offsets = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[i + 1] = offsets[i] + StandardFormNumeralCallable.length(lowNumber + i);
+            }
+            final byte[] numerals = new byte[offsets[size]];
+            final StandardFormNumeralRangeTask task = new StandardFormNumeralRangeTask(numerals, offsets, lowNumber,
+                    0, size, RANGE_BLOCK_SIZE);
+            final long submitted = System.nanoTime();
+            pool.submit(() -> {
+                // picked up by a worker. the blocks are forked from here.
+                final long started = System.nanoTime();
+                rangeQueueWaits.update(started - submitted, TimeUnit.NANOSECONDS);
+                event.setQueueWait(started - submitted);
+                task.invoke();
+                final long execution = System.nanoTime() - started;
+                rangeExecutions.update(execution, TimeUnit.NANOSECONDS);
+                event.setExecutionTime(execution);
+            }).get();
+            result = new NumeralRange(lowNumber, size, numerals, offsets, 0);
+            event.setRangePool(pool.getParallelism(), RANGE_BLOCK_SIZE);
+        } catch (InterruptedException | ExecutionException e) {
+            LOG.warn("Failed to get execution result.", e);
+        } finally {
+            // record the event, even when rejected.
+            commit(event, ConversionEvent.RANGE, lowNumber, highNumber, size, result != null);
+        }
+        return result;
+    }
+
+    @Override
+    public List<NumeralPair> convertToNumerals(final int[] numbers) {
+        final ConversionEvent event = new ConversionEvent();
+        event.begin();
+        List<NumeralPair> pairs = null;
+        int[] distinct = null;
+        int distinctCount = 0;
         try {
-            // get executor service with configured thread pool size.
-            executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-            // add conversion tasks for all numbers in our range. 
-            for (int i = lowNumber; i <= highNumber; i++) {
-                callables.add(new StandardFormNumeralCallable(i));
+            // sort & remove duplicates, so each number is converted once.
+            distinct = Arrays.copyOf(numbers, numbers.length);
+            Arrays.sort(distinct);
+            for (int i = 0; i < distinct.length; i++) {
+                if (i == 0 || distinct[i] != distinct[distinctCount - 1]) {
+                    distinct[distinctCount++] = distinct[i];
+                }
             }
+            final List<Callable<NumeralPair>> callables = new ArrayList<Callable<NumeralPair>>(distinctCount);
+            for (int i = 0; i < distinctCount; i++) {
+                callables.add(new StandardFormNumeralCallable(distinct[i]));
+            }
+            // reject up front, rather than part way through, if the queue is full.
+            checkInterrupted();
+            checkCapacity(callables.size());
             // invoke conversion tasks.  gaurantees all tasks have executed.
-            for (Future<NumeralPair> future : executorService.invokeAll(callables)) {
-                // add numeral pair to collection.
-                pairs.add(future.get());
+            final List<Future<NumeralPair>> futures = App.conversionExecutor.invokeAll(callables);
+            // map the converted pairs back to the requested order.
+            pairs = new ArrayList<NumeralPair>(numbers.length);
+            for (final int number : numbers) {
+                pairs.add(futures.get(Arrays.binarySearch(distinct, 0, distinctCount, number)).get());
             }
         } catch (InterruptedException | ExecutionException e) {
             LOG.warn("Failed to get execution result.", e);
             // clear out the pairs, so we know a problem occurred.
             pairs = null;
         } finally {
-            if (executorService != null) {
-                executorService.shutdown();
-            }
+            // record the event, even when rejected.
+            commit(event, ConversionEvent.BATCH, distinctCount > 0 ? distinct[0] : 0,
+                    distinctCount > 0 ? distinct[distinctCount - 1] : 0, distinctCount, pairs != null);
         }
-        // stop timer.
-        timer.stop();
         return pairs;
     }
 
+    /**
+     * Ends a conversion event, and commits it if it should be recorded (JFR is
+     * recording it & it was slower than its threshold).
+     * 
+     * @param event      Conversion event.
+     * @param kind       Conversion kind.
+     * @param lowNumber  Lowest number converted.
+     * @param highNumber Highest number converted.
+     * @param width      Numbers converted.
+     * @param successful Whether the conversion succeeded.
+     */
+    private static void commit(final ConversionEvent event, final String kind, final int lowNumber,
+            final int highNumber, final int width, final boolean successful) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setConversion(kind, lowNumber, highNumber, width);
+            event.setSuccessful(successful);
+            event.commit();
+        }
+    }
+
+    /**
+     * Checks (and clears) the calling thread's interrupt status. Tasks on the
+     * shared executor may complete before the caller waits on them, so an
+     * interrupted caller is detected up front rather than relying on
+     * {@link Future#get()}.
+     * 
+     * @throws InterruptedException If the calling thread was interrupted.
+     */
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Checks that the shared executor's queue has room for <code>tasks</code>
+     * more tasks.
+     * 
+     * @param tasks Number of tasks about to be submitted.
+     * @throws RejectedExecutionException If the queue does not have room.
+     */
+    private static void checkCapacity(final int tasks) {
+        final BoundedExecutorService executor = App.conversionExecutor;
+        if (executor.getRemainingCapacity() < tasks) {
+            throw new RejectedExecutionException("Conversion executor saturated. [tasks = " + tasks
+                    + ", remainingCapacity = " + executor.getRemainingCapacity() + "]");
+        }
+    }
+
+    @Override
+    public NumeralPair parseNumeral(final CharSequence numeral) {
+        final int number = StandardFormNumeralParser.parse(numeral);
+        return number == StandardFormNumeralParser.INVALID ? null : new NumeralPair(number, numeral.toString());
+    }
+
+    @Override
+    public boolean isValidNumeral(final CharSequence numeral) {
+        return StandardFormNumeralParser.parse(numeral) != StandardFormNumeralParser.INVALID;
+    }
+
     @Override
     public boolean isEligible(final int number) {
         return number >= MIN_NUMERAL && number <= MAX_NUMERAL;
@@ -0,0 +1,75 @@
+package com.borland.numerals.service.impl;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Packed table of all standard form numerals. Numerals are stored back to back
+ * as ASCII bytes, with an offset index to locate each number's numeral.
+ * 
+ * @author chrismborland
+ */
+final class StandardFormNumeralTable {
+
+    /**
+     * Packed numeral bytes for 1-3999.
+     */
+    static final byte[] NUMERALS;
+
+    /**
+     * Offset of each number's numeral in {@link #NUMERALS}. The numeral for
+     * <code>n</code> spans <code>OFFSETS[n]</code> to
+     * <code>OFFSETS[n + 1]</code>.
+     */
+    static final int[] OFFSETS = new int[StandardFormNumeralServiceImpl.MAX_NUMERAL + 2];
+
+    /**
+     * Length of the longest numeral in the table.
+     */
+    static final int MAX_LENGTH;
+
+    static {
+        final String[] numerals = new String[StandardFormNumeralServiceImpl.MAX_NUMERAL + 1];
+        int size = 0;
+        int maxLength = 0;
+        for (int i = StandardFormNumeralServiceImpl.MIN_NUMERAL; i <= StandardFormNumeralServiceImpl.MAX_NUMERAL; i++) {
+            numerals[i] = StandardFormNumeralCallable.toNumeral(i);
+            size += numerals[i].length();
+            maxLength = Math.max(maxLength, numerals[i].length());
+        }
+        NUMERALS = new byte[size];
+        int offset = 0;
+        for (int i = StandardFormNumeralServiceImpl.MIN_NUMERAL; i <= StandardFormNumeralServiceImpl.MAX_NUMERAL; i++) {
+            OFFSETS[i] = offset;
+            final byte[] bytes = numerals[i].getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(bytes, 0, NUMERALS, offset, bytes.length);
+            offset += bytes.length;
+        }
+        OFFSETS[StandardFormNumeralServiceImpl.MAX_NUMERAL + 1] = offset;
+        MAX_LENGTH = maxLength;
+    }
+
+    private StandardFormNumeralTable() {
+
+    }
+
+    /**
+     * Get the offset of the numeral for <code>number</code>.
+     * 
+     * @param number Number.
+     * @return Offset in {@link #NUMERALS}.
+     */
+    static int offset(final int number) {
+        return OFFSETS[number];
+    }
+
+    /**
+     * Get the length of the numeral for <code>number</code>.
+     * 
+     * @param number Number.
+     * @return Numeral length.
+     */
+    static int length(final int number) {
+        return OFFSETS[number + 1] - OFFSETS[number];
+    }
+
+}
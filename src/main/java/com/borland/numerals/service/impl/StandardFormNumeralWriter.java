@@ -0,0 +1,57 @@
+package com.borland.numerals.service.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.borland.numerals.service.NumeralWriter;
+
+/**
+ * Writes standard form Roman numerals from a packed, precomputed table. Writes
+ * are plain copies and do not allocate.
+ * 
+ * @author chrismborland
+ */
+public class StandardFormNumeralWriter implements NumeralWriter {
+
+    @Override
+    public int getMaxLength() {
+        return StandardFormNumeralTable.MAX_LENGTH;
+    }
+
+    @Override
+    public int getLength(final int number) {
+        return StandardFormNumeralTable.length(number);
+    }
+
+    @Override
+    public int write(final int number, final byte[] buffer, final int offset) {
+        final int length = StandardFormNumeralTable.length(number);
+        System.arraycopy(StandardFormNumeralTable.NUMERALS, StandardFormNumeralTable.offset(number), buffer, offset,
+                length);
+        return length;
+    }
+
+    @Override
+    public int write(final int number, final ByteBuffer buffer) {
+        final int length = StandardFormNumeralTable.length(number);
+        buffer.put(StandardFormNumeralTable.NUMERALS, StandardFormNumeralTable.offset(number), length);
+        return length;
+    }
+
+    @Override
+    public int write(final int number, final Appendable appendable) throws IOException {
+        final int offset = StandardFormNumeralTable.offset(number);
+        final int length = StandardFormNumeralTable.length(number);
+        for (int i = offset; i < offset + length; i++) {
+            appendable.append((char) StandardFormNumeralTable.NUMERALS[i]);
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isEligible(final int number) {
+        return number >= StandardFormNumeralServiceImpl.MIN_NUMERAL
+                && number <= StandardFormNumeralServiceImpl.MAX_NUMERAL;
+    }
+
+}
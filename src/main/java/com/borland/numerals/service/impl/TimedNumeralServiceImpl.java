@@ -0,0 +1,116 @@
+package com.borland.numerals.service.impl;
+
+import java.util.List;
+import java.util.Set;
+
+import com.borland.numerals.App;
+import com.borland.numerals.metrics.MetricsFactory;
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
+import com.borland.numerals.service.NumeralService;
+import com.codahale.metrics.Timer;
+
+/**
+ * Service which times the conversions of another numeral service. Services
+ * themselves are not timed, so lookups stay allocation free; conversions are
+ * timed where requests are served (see
+ * {@link com.borland.numerals.servlet.NumeralServlet}). Timers are stopped
+ * even when a conversion is rejected.
+ *
+ * @author chrismborland
+ */
+public class TimedNumeralServiceImpl implements NumeralService {
+
+    // service being timed.
+    private final NumeralService numeralService;
+
+    // metrics
+    private final Timer singleResponses = MetricsFactory.timer(App.METRIX_PREFIX + ".singleConversions");
+    private final Timer multipleResponses = MetricsFactory.timer(App.METRIX_PREFIX + ".rangeConversions");
+    private final Timer batchResponses = MetricsFactory.timer(App.METRIX_PREFIX + ".batchConversions");
+    private final Timer parseResponses = MetricsFactory.timer(App.METRIX_PREFIX + ".numeralParses");
+
+    /**
+     * Public constructor.
+     *
+     * @param numeralService Service to time.
+     */
+    public TimedNumeralServiceImpl(final NumeralService numeralService) {
+        this.numeralService = numeralService;
+    }
+
+    /**
+     * Get the service being timed.
+     *
+     * @return Numeral service.
+     */
+    public NumeralService getNumeralService() {
+        return numeralService;
+    }
+
+    @Override
+    public NumeralPair convertToNumeral(final int number) {
+        final Timer.Context timer = singleResponses.time();
+        try {
+            return numeralService.convertToNumeral(number);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Override
+    public Set<NumeralPair> convertToNumeral(final int lowNumber, final int highNumber) {
+        final Timer.Context timer = multipleResponses.time();
+        try {
+            return numeralService.convertToNumeral(lowNumber, highNumber);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Override
+    public NumeralRange convertToNumeralRange(final int lowNumber, final int highNumber) {
+        final Timer.Context timer = multipleResponses.time();
+        try {
+            return numeralService.convertToNumeralRange(lowNumber, highNumber);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Override
+    public List<NumeralPair> convertToNumerals(final int[] numbers) {
+        final Timer.Context timer = batchResponses.time();
+        try {
+            return numeralService.convertToNumerals(numbers);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Override
+    public NumeralPair parseNumeral(final CharSequence numeral) {
+        final Timer.Context timer = parseResponses.time();
+        try {
+            return numeralService.parseNumeral(numeral);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Override
+    public boolean isValidNumeral(final CharSequence numeral) {
+        return numeralService.isValidNumeral(numeral);
+    }
+
+    @Override
+    public boolean isEligible(final int number) {
+        return numeralService.isEligible(number);
+    }
+
+    @Override
+    public boolean isRangeEligible(final int lowNumber, final int highNumber) {
+        return numeralService.isRangeEligible(lowNumber, highNumber);
+    }
+
+}
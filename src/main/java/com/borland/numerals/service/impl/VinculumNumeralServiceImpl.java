@@ -0,0 +1,112 @@
+package com.borland.numerals.service.impl;
+
+import java.io.IOException;
+
+import com.borland.numerals.App;
+import com.borland.numerals.metrics.MetricsFactory;
+import com.borland.numerals.service.ExtendedNumeralService;
+import com.borland.numerals.service.NumeralConsumer;
+import com.codahale.metrics.Timer;
+
+/**
+ * Service is used to convert numbers beyond 3999 to Roman numerals using
+ * vinculum notation, where an overline multiplies a numeral by 1000 (i.e.
+ * 5000 is V&#773;). Numbers of 4000 and up are split into thousands, which are
+ * written with an overline, and the remainder, which is written in standard
+ * form. Thousands of 4000 and up are split again, stacking another overline,
+ * so any positive <code>long</code> can be converted.
+ * 
+ * Overlines are written as the combining overline character (U+0305) after
+ * each symbol.
+ * 
+ * @author chrismborland
+ */
+public class VinculumNumeralServiceImpl implements ExtendedNumeralService {
+
+    /**
+     * Combining overline character.
+     */
+    public static final char VINCULUM = '\u0305';
+
+    // vinculum numeral service boundaries.
+    public static final long MIN_NUMERAL = 1;
+    public static final long MAX_NUMERAL = Long.MAX_VALUE;
+
+    // numbers below this are written in standard form.
+    private static final int VINCULUM_THRESHOLD = StandardFormNumeralServiceImpl.MAX_NUMERAL + 1;
+
+    // metrics
+    private final Timer singleResponses = MetricsFactory.timer(App.METRIX_PREFIX + ".extendedSingleConversions");
+    private final Timer multipleResponses = MetricsFactory.timer(App.METRIX_PREFIX + ".extendedRangeConversions");
+
+    @Override
+    public String convertToNumeral(final long number) {
+        // start timer.
+        final Timer.Context timer = singleResponses.time();
+        final StringBuilder sb = new StringBuilder();
+        appendNumeral(number, 0, sb);
+        // stop timer.
+        timer.stop();
+        return sb.toString();
+    }
+
+    @Override
+    public void convertToNumerals(final long lowNumber, final long highNumber, final NumeralConsumer consumer)
+            throws IOException {
+        // start timer.
+        final Timer.Context timer = multipleResponses.time();
+        try {
+            // builder is reused for every number, so memory stays constant.
+            final StringBuilder sb = new StringBuilder();
+            for (long i = lowNumber; i <= highNumber; i++) {
+                sb.setLength(0);
+                appendNumeral(i, 0, sb);
+                consumer.accept(i, sb);
+                // guard against overflow when the range ends at the max value.
+                if (i == Long.MAX_VALUE) {
+                    break;
+                }
+            }
+        } finally {
+            // stop timer.
+            timer.stop();
+        }
+    }
+
+    /**
+     * Recursively appends the numeral for <code>number</code>. Thousands are
+     * appended first with one more overline than the remainder.
+     * 
+     * @param number   Number to convert.
+     * @param vincula  Number of overlines to place over each symbol.
+     * @param sb       String builder to append numerals to.
+     */
+    private static void appendNumeral(final long number, final int vincula, final StringBuilder sb) {
+        long remainder = number;
+        if (remainder >= VINCULUM_THRESHOLD) {
+            appendNumeral(remainder / 1000, vincula + 1, sb);
+            remainder %= 1000;
+        }
+        if (remainder > 0) {
+            final int offset = StandardFormNumeralTable.offset((int) remainder);
+            final int length = StandardFormNumeralTable.length((int) remainder);
+            for (int i = offset; i < offset + length; i++) {
+                sb.append((char) StandardFormNumeralTable.NUMERALS[i]);
+                for (int v = 0; v < vincula; v++) {
+                    sb.append(VINCULUM);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEligible(final long number) {
+        return number >= MIN_NUMERAL && number <= MAX_NUMERAL;
+    }
+
+    @Override
+    public boolean isRangeEligible(final long lowNumber, final long highNumber) {
+        return isEligible(lowNumber) && isEligible(highNumber) && lowNumber < highNumber;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.borland.numerals.servlet;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * HTTP caching for numeral responses. Every successful response is a pure
+ * function of its (canonical) parameters and the conversion engine version, so
+ * responses carry a strong ETag derived from those and are cacheable forever.
+ * 
+ * @author chrismborland
+ */
+final class CacheHeaders {
+
+    /**
+     * Version of the conversion engine & response format. Bump whenever the
+     * bytes of any response could change, so cached copies are not reused.
+     */
+    static final String ENGINE_VERSION = "1";
+
+    /**
+     * Cache control for successful responses (one year, never revalidated).
+     */
+    static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // suffix of gzip variant etags (see jetty's GzipHandler).
+    static final String GZIP_ETAG_SUFFIX = "--gzip";
+
+    private CacheHeaders() {
+
+    }
+
+    /**
+     * Creates a strong ETag for a response.
+     * 
+     * @param mode       Conversion mode (i.e. <code>range</code>).
+     * @param parameters Canonical parameters (i.e. parsed numbers, not the raw
+     *                   query string).
+     * @return Quoted ETag.
+     */
+    static String etag(final String mode, final Object... parameters) {
+        StringBuilder etag = new StringBuilder("\"").append(ENGINE_VERSION).append('-').append(mode);
+        for (Object parameter : parameters) {
+            etag.append('-').append(parameter);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Get the ETag of the gzip encoded variant of a response. Uses the same
+     * <code>--gzip</code> suffix as Jetty's <code>GzipHandler</code>, which
+     * strips it from <code>If-None-Match</code> before the request reaches the
+     * servlet.
+     * 
+     * @param etag Quoted ETag of the uncompressed response.
+     * @return Quoted ETag of the gzip response.
+     */
+    static String gzipEtag(final String etag) {
+        return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    /**
+     * Check the request's <code>If-None-Match</code> header against the response
+     * ETag. If it matches, the response is completed as <code>304</code> (with
+     * caching headers), and nothing else needs to be done.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param etag     ETag of the response.
+     * @return <code>true</code>, if not modified (304 sent). <code>false</code>,
+     *         otherwise.
+     */
+    static boolean notModified(final HttpServletRequest request, final HttpServletResponse response,
+            final String etag) {
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch == null || !matches(ifNoneMatch, etag)) {
+            return false;
+        }
+        apply(response, etag);
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return true;
+    }
+
+    /**
+     * Sets the caching headers for a successful response.
+     * 
+     * @param response Response.
+     * @param etag     ETag of the response, or <code>null</code> if the response
+     *                 is not cacheable.
+     */
+    static void apply(final HttpServletResponse response, final String etag) {
+        if (etag != null) {
+            response.setHeader("ETag", etag);
+            response.setHeader("Cache-Control", CACHE_CONTROL);
+        }
+    }
+
+    /**
+     * Check if an <code>If-None-Match</code> header matches an ETag (weak
+     * comparison, as required for <code>If-None-Match</code>).
+     */
+    static boolean matches(final String ifNoneMatch, final String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
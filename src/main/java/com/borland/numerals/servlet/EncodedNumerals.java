@@ -0,0 +1,148 @@
+package com.borland.numerals.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.borland.numerals.service.impl.StandardFormNumeralCallable;
+import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+
+/**
+ * Every standard form numeral pair, pre-encoded once as the UTF-8 JSON the
+ * servlet would otherwise generate per request. The objects are packed in
+ * number order, separated by commas, into a single read-only direct
+ * {@link ByteBuffer} with an offset index:
+ * 
+ * <pre>
+ * {"number":1,"numeral":"I"},{"number":2,"numeral":"II"},...
+ * </pre>
+ * 
+ * A single response is a slice of one object and a range response is
+ * <code>[</code>, one contiguous slice & <code>]</code>, so responses are
+ * served without Jackson or heap copies.
+ * 
+ * @author chrismborland
+ */
+final class EncodedNumerals {
+
+    private static final ByteBuffer ARRAY_START = readOnly(new byte[] { '[' });
+    private static final ByteBuffer ARRAY_END = readOnly(new byte[] { ']' });
+
+    private final int minNumber;
+    private final int maxNumber;
+    private final ByteBuffer json;
+    // offsets[n - minNumber] is the start of number n. one trailing offset past
+    // the (virtual) last comma.
+    private final int[] offsets;
+
+    /**
+     * Encodes all numbers from <code>minNumber</code> to <code>maxNumber</code>.
+     * 
+     * @param minNumber Lowest number encoded.
+     * @param maxNumber Highest number encoded.
+     */
+    EncodedNumerals(final int minNumber, final int maxNumber) {
+        this.minNumber = minNumber;
+        this.maxNumber = maxNumber;
+        this.offsets = new int[maxNumber - minNumber + 2];
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream((maxNumber - minNumber + 1) * 40);
+        for (int number = minNumber; number <= maxNumber; number++) {
+            offsets[number - minNumber] = encoded.size();
+            if (number > minNumber) {
+                offsets[number - minNumber]++;
+                encoded.write(',');
+            }
+            // numerals are plain ascii letters; nothing needs escaping.
+            byte[] pair = ("{\"number\":" + number + ",\"numeral\":\"" + StandardFormNumeralCallable.toNumeral(number)
+                    + "\"}").getBytes(StandardCharsets.US_ASCII);
+            encoded.write(pair, 0, pair.length);
+        }
+        offsets[offsets.length - 1] = encoded.size() + 1;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.size());
+        buffer.put(encoded.toByteArray()).flip();
+        this.json = buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the shared standard form encoding (1-3999). Encoded on first use, so
+     * servlets that do not serve it (i.e. over a mapped numeral table) never
+     * compute it.
+     * 
+     * @return Standard form encoding.
+     */
+    static EncodedNumerals standardForm() {
+        return StandardForm.ENCODED;
+    }
+
+    /**
+     * Check to see if a range is covered by the encoding.
+     * 
+     * @param lowNumber  Low end of range.
+     * @param highNumber High end of range.
+     * @return <code>true</code>, if covered. <code>false</code>, otherwise.
+     */
+    boolean covers(final int lowNumber, final int highNumber) {
+        return lowNumber >= minNumber && highNumber <= maxNumber && lowNumber <= highNumber;
+    }
+
+    /**
+     * Get the encoded JSON object for a single number.
+     * 
+     * @param number Number (must be covered).
+     * @return Read-only buffer positioned at the object.
+     */
+    ByteBuffer single(final int number) {
+        return slice(number, number);
+    }
+
+    /**
+     * Get the encoded JSON array for a range, as buffers to be written in order.
+     * 
+     * @param lowNumber  Low end of range (must be covered).
+     * @param highNumber High end of range (must be covered).
+     * @return Read-only buffers: array start, objects & array end.
+     */
+    ByteBuffer[] range(final int lowNumber, final int highNumber) {
+        return new ByteBuffer[] { ARRAY_START.duplicate(), slice(lowNumber, highNumber), ARRAY_END.duplicate() };
+    }
+
+    /**
+     * Get the encoded objects (comma separated) from <code>lowNumber</code> to
+     * <code>highNumber</code>.
+     */
+    private ByteBuffer slice(final int lowNumber, final int highNumber) {
+        ByteBuffer slice = json.duplicate();
+        slice.limit(offsets[highNumber - minNumber + 1] - 1).position(offsets[lowNumber - minNumber]);
+        return slice;
+    }
+
+    /**
+     * Get the total amount of bytes in buffers.
+     * 
+     * @param buffers Buffers.
+     * @return Bytes remaining across all buffers.
+     */
+    static int remaining(final ByteBuffer... buffers) {
+        int remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        return remaining;
+    }
+
+    private static ByteBuffer readOnly(final byte[] bytes) {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Holds the shared standard form encoding, so it is only encoded once this
+     * class is initialized (on first use).
+     */
+    private static final class StandardForm {
+
+        private static final EncodedNumerals ENCODED = new EncodedNumerals(StandardFormNumeralServiceImpl.MIN_NUMERAL,
+                StandardFormNumeralServiceImpl.MAX_NUMERAL);
+
+    }
+
+}
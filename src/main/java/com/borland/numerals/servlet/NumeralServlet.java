@@ -1,20 +1,50 @@
 package com.borland.numerals.servlet;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.util.Set;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import com.borland.numerals.App;
+import com.borland.numerals.jfr.RequestEvent;
+import com.borland.numerals.metrics.MetricsFactory;
+import com.borland.numerals.service.ExtendedNumeralService;
 import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
 import com.borland.numerals.service.NumeralService;
-import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+import com.borland.numerals.service.impl.TimedNumeralServiceImpl;
+import com.borland.numerals.service.impl.VinculumNumeralServiceImpl;
+import com.borland.numerals.servlet.format.NumeralFormat;
 import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
+import org.eclipse.jetty.server.HttpOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,12 +63,212 @@ public class NumeralServlet extends HttpServlet {
     public static final String SERVLET_PATH = "/romannumeral";
 
     // metrics.s
-    private final Histogram responseSizes = App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes");
+    private final Histogram responseSizes = MetricsFactory.histogram(App.METRIX_PREFIX + ".successResponseSizes");
 
     // available query string parameters.
     private static final String PARAM_QUERY = "query";
     private static final String PARAM_MIN = "min";
     private static final String PARAM_MAX = "max";
+    private static final String PARAM_NUMERAL = "numeral";
+    private static final String PARAM_EXTENDED = "extended";
+    private static final String PARAM_FORMAT = "format";
+    private static final String PARAM_LIMIT = "limit";
+    private static final String PARAM_CURSOR = "cursor";
+
+    // maximum amount of numbers accepted in a single batch request.
+    public static final int MAX_BATCH_SIZE = 10000;
+
+    // time allowed for an async range response to be converted & written.
+    public static final long ASYNC_TIMEOUT_MILLIS = 60000L;
+
+    // bytes written per write while the response is writable.
+    private static final int ASYNC_WRITE_CHUNK_SIZE = 8192;
+
+    /**
+     * Request attribute holding the uncompressed size (bytes) of a successful
+     * response.
+     */
+    public static final String UNCOMPRESSED_SIZE_ATTRIBUTE = NumeralServlet.class.getName() + ".uncompressedSize";
+
+    // request attribute holding the request's JFR event, until the response completes.
+    private static final String REQUEST_EVENT_ATTRIBUTE = NumeralServlet.class.getName() + ".requestEvent";
+
+    // shared (thread safe) pre-built json writer & streaming factory.
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter OBJECT_WRITER = MAPPER.writer();
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+
+    // service used for all conversions (timed).
+    private final TimedNumeralServiceImpl numeralService;
+
+    // service used for extended (vinculum) conversions.
+    private final ExtendedNumeralService extendedNumeralService = new VinculumNumeralServiceImpl();
+
+    // pre-encoded json for single & range responses (optional).
+    private final EncodedNumerals encodedNumerals;
+
+    // gzip copies of hot pre-encoded range responses (optional).
+    private final PrecompressedNumerals precompressedNumerals;
+
+    // metrics for responses served from the pre-encoded json. slices are not
+    // conversions, so they are timed apart from the service's conversions.
+    private final Timer encodedSingleSlices;
+    private final Timer encodedRangeSlices;
+
+    /**
+     * Default constructor. Uses the precomputed standard form numeral service,
+     * and serves single & range responses from pre-encoded JSON (encoded on first
+     * use, so only servlets built this way compute it).
+     */
+    public NumeralServlet() {
+        this(new PrecomputedNumeralServiceImpl(), EncodedNumerals.standardForm(),
+                PrecompressedNumerals.standardForm());
+    }
+
+    /**
+     * Public constructor.
+     * 
+     * @param numeralService Service used for conversions (timed by the servlet).
+     */
+    public NumeralServlet(final NumeralService numeralService) {
+        this(numeralService, null, null);
+    }
+
+    /**
+     * Package constructor.
+     * 
+     * @param numeralService        Service used for conversions (timed by the
+     *                              servlet).
+     * @param encodedNumerals       Pre-encoded JSON matching the service's
+     *                              results, or <code>null</code> to always use the
+     *                              service.
+     * @param precompressedNumerals Gzip copies of hot pre-encoded range responses,
+     *                              or <code>null</code> to never serve them.
+     */
+    NumeralServlet(final NumeralService numeralService, final EncodedNumerals encodedNumerals,
+            final PrecompressedNumerals precompressedNumerals) {
+        this.numeralService = new TimedNumeralServiceImpl(numeralService);
+        this.encodedNumerals = encodedNumerals;
+        this.precompressedNumerals = precompressedNumerals;
+        this.encodedSingleSlices = MetricsFactory.timer(App.METRIX_PREFIX + ".encodedSingleSlices");
+        this.encodedRangeSlices = MetricsFactory.timer(App.METRIX_PREFIX + ".encodedRangeSlices");
+    }
+
+    /**
+     * Get the service used for conversions, without the servlet's timers (so
+     * conversions outside of requests, i.e. health checks, are not recorded).
+     * 
+     * @return Numeral service.
+     */
+    public NumeralService getNumeralService() {
+        return numeralService.getNumeralService();
+    }
+
+    /**
+     * Dispatches the request. If the conversion executor is saturated, responds
+     * with <code>503</code> and a <code>Retry-After</code> header, so clients back
+     * off instead of piling on more work.
+     * 
+     * Slow requests are recorded as JFR events (Java 11+), once the response
+     * completes (including async responses).
+     */
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        final RequestEvent event = new RequestEvent();
+        event.begin();
+        request.setAttribute(REQUEST_EVENT_ATTRIBUTE, event);
+        try {
+            super.service(request, response);
+        } catch (RejectedExecutionException ree) {
+            LOG.warn("Conversion rejected, service saturated.", ree);
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", Integer.toString(App.RETRY_AFTER_SECONDS));
+        } finally {
+            // unless an async response took the event over (see startAsync), the response is complete.
+            if (request.getAttribute(REQUEST_EVENT_ATTRIBUTE) == event) {
+                request.removeAttribute(REQUEST_EVENT_ATTRIBUTE);
+                commit(event, request, response);
+            }
+        }
+    }
+
+    /**
+     * Starts async processing of a request. The request's event is taken over
+     * by a listener, registered before any work is handed off (so the response
+     * can not complete first), which commits it once the response completes.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @return Async context of the request.
+     */
+    private static AsyncContext startAsync(final HttpServletRequest request, final HttpServletResponse response) {
+        final AsyncContext asyncContext = request.startAsync();
+        final Object event = request.getAttribute(REQUEST_EVENT_ATTRIBUTE);
+        if (event instanceof RequestEvent) {
+            request.removeAttribute(REQUEST_EVENT_ATTRIBUTE);
+            asyncContext.addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent asyncEvent) {
+                    commit((RequestEvent) event, request, response);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent asyncEvent) {
+                }
+
+                @Override
+                public void onError(AsyncEvent asyncEvent) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent asyncEvent) {
+                }
+            });
+        }
+        return asyncContext;
+    }
+
+    /**
+     * Ends a request event, and commits it if it should be recorded (JFR is
+     * recording it & it was slower than its threshold).
+     * 
+     * @param event    Request event.
+     * @param request  Request.
+     * @param response Completed response.
+     */
+    private static void commit(final RequestEvent event, final HttpServletRequest request,
+            final HttpServletResponse response) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setMethod(request.getMethod());
+            event.setMode(getMode(request));
+            event.setParameters(request.getQueryString());
+            event.setStatus(response.getStatus());
+            final Object responseBytes = request.getAttribute(UNCOMPRESSED_SIZE_ATTRIBUTE);
+            event.setResponseBytes(responseBytes instanceof Long ? (Long) responseBytes : 0L);
+            event.commit();
+        }
+    }
+
+    /**
+     * Get the mode of a request.
+     * 
+     * @param request Request.
+     * @return Mode (single, range, numeral, extended or batch).
+     */
+    private static String getMode(final HttpServletRequest request) {
+        if ("POST".equals(request.getMethod())) {
+            return "batch";
+        } else if (Boolean.parseBoolean(request.getParameter(PARAM_EXTENDED))) {
+            return "extended";
+        } else if (request.getParameter(PARAM_NUMERAL) != null) {
+            return "numeral";
+        } else if (request.getParameter(PARAM_QUERY) != null) {
+            return "single";
+        }
+        return "range";
+    }
 
     protected void doGet(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
@@ -46,9 +276,45 @@ public class NumeralServlet extends HttpServlet {
         String query = request.getParameter(PARAM_QUERY);
         String min = request.getParameter(PARAM_MIN);
         String max = request.getParameter(PARAM_MAX);
+        String numeral = request.getParameter(PARAM_NUMERAL);
+        boolean extended = Boolean.parseBoolean(request.getParameter(PARAM_EXTENDED));
+        // negotiate the response format (single & range modes only; the other modes are always JSON).
+        NumeralFormat format = NumeralFormat.JSON;
+        if (!extended && (query != null || (numeral == null && min != null && max != null))) {
+            format = NumeralFormat.negotiate(request.getParameter(PARAM_FORMAT), request.getHeader("Accept"));
+            if (format == null) {
+                LOG.error("Unknown format on conversion request. [format = {}]", request.getParameter(PARAM_FORMAT));
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            // single & range responses vary by the negotiated format.
+            response.addHeader("Vary", "Accept");
+        }
+        // narrow paged range requests to the requested page.
+        if (!extended && query == null && numeral == null && min != null && max != null
+                && (request.getParameter(PARAM_LIMIT) != null || request.getParameter(PARAM_CURSOR) != null)) {
+            int[] page = handlePage(request, response, min, max);
+            if (page == null) {
+                return;
+            }
+            min = Integer.toString(page[0]);
+            max = Integer.toString(page[1]);
+        }
         // determine how to process.
-        if (query != null) {
+        if (extended && query != null) {
+            handleExtendedSingle(request, response, query);
+        } else if (extended && min != null && max != null) {
+            handleExtendedRange(request, response, min, max);
+        } else if (query != null && format != NumeralFormat.JSON) {
+            handleFormattedSingle(request, response, query, format);
+        } else if (min != null && max != null && format != NumeralFormat.JSON) {
+            handleFormattedRange(request, response, min, max, format);
+        } else if (query != null) {
             handleSingle(request, response, query);
+        } else if (numeral != null) {
+            handleNumeral(request, response, numeral);
+        } else if (min != null && max != null && request.isAsyncSupported() && !request.isAsyncStarted()) {
+            handleRangeAsync(request, response, min, max);
         } else if (min != null && max != null) {
             handleRange(request, response, min, max);
         } else {
@@ -57,6 +323,47 @@ public class NumeralServlet extends HttpServlet {
         }
     }
 
+    /**
+     * Handles a batch conversion request. The body is either a JSON array of
+     * integers or a newline separated list of integers (up to
+     * {@link #MAX_BATCH_SIZE}). Returns a JSON array of numeral pair objects, in
+     * the same order as the request, if successful. If the body is invalid, error
+     * JSON will be returned.
+     */
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        // read the requested numbers.
+        int[] numbers = readNumbers(request.getReader());
+        if (numbers == null) {
+            LOG.error("Invalid body on batch conversion request.");
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        if (numbers.length > MAX_BATCH_SIZE) {
+            LOG.error("Too many numbers on batch conversion request. [max = {}]", MAX_BATCH_SIZE);
+            response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        // check for eligibility.
+        for (int number : numbers) {
+            if (!numeralService.isEligible(number)) {
+                LOG.error("Invalid number on batch conversion request. [number = {}]", number);
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+        }
+        // perform the actual conversion.
+        List<NumeralPair> pairs = numeralService.convertToNumerals(numbers);
+        // verify we recieved pairs.
+        if (pairs == null) {
+            LOG.error("Error converting batch of [{}] numbers to numerals.  Check logs.", numbers.length);
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+        // write the converted pairs to the response.
+        sendResponse(request, response, null, pairs);
+    }
+
     /**
      * Handles a request for a single number conversion. Returns a numeral pair JSON
      * object, if successful. If parameters are invalid, error JSON will be
@@ -71,7 +378,6 @@ public class NumeralServlet extends HttpServlet {
             throws IOException {
         // attempt to convert the query params to integers.
         int number = getNumber(query);
-        NumeralService numeralService = new StandardFormNumeralServiceImpl();
         // check for eligibility
         if (!numeralService.isEligible(number)) {
             // log the invalid request.
@@ -81,6 +387,19 @@ public class NumeralServlet extends HttpServlet {
             // return early. do not continue processing.
             return;
         }
+        // check the client's cached copy before converting anything.
+        final String etag = CacheHeaders.etag(PARAM_QUERY, number);
+        if (CacheHeaders.notModified(request, response, etag)) {
+            return;
+        }
+        // serve the pre-encoded pair, if available.
+        if (encodedNumerals != null && encodedNumerals.covers(number, number)) {
+            final long start = System.nanoTime();
+            ByteBuffer json = encodedNumerals.single(number);
+            encodedSingleSlices.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            sendEncodedResponse(request, response, etag, json);
+            return;
+        }
         // perform the actual conversion
         NumeralPair pair = numeralService.convertToNumeral(number);
         // verify we recieved pair.
@@ -91,8 +410,116 @@ public class NumeralServlet extends HttpServlet {
             return;
         }
         // write the converted pair to the response.
-        ObjectMapper mapper = new ObjectMapper();
-        sendResponse(response, mapper.writeValueAsString(pair));
+        sendResponse(request, response, etag, pair);
+    }
+
+    /**
+     * Handles a request for a numeral to number conversion. Returns a numeral pair
+     * JSON object, if successful. If the numeral is not a valid standard form
+     * numeral, error JSON will be returned.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param numeral  Numeral parameter to convert.
+     * @throws IOException
+     */
+    private void handleNumeral(HttpServletRequest request, HttpServletResponse response, String numeral)
+            throws IOException {
+        // check for validity.
+        if (!numeralService.isValidNumeral(numeral)) {
+            // log the invalid request.
+            LOG.error("Invalid parameter on conversion request. [numeral = {}]", numeral);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        // check the client's cached copy before converting anything.
+        final String etag = CacheHeaders.etag(PARAM_NUMERAL, numeral);
+        if (CacheHeaders.notModified(request, response, etag)) {
+            return;
+        }
+        // perform the actual conversion.
+        NumeralPair pair = numeralService.parseNumeral(numeral);
+        // verify we recieved pair.
+        if (pair == null) {
+            LOG.error("Error converting [{}] to number.  Check logs.", numeral);
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+        // write the converted pair to the response.
+        sendResponse(request, response, etag, pair);
+    }
+
+    /**
+     * Handles a paged range request. Works out the page from the
+     * <code>limit</code> (defaults to {@link PageCursor#MAX_LIMIT}) &
+     * <code>cursor</code> (defaults to the start of the range) parameters, and
+     * sets the <code>X-Next-Cursor</code> & <code>Link</code> headers if there is
+     * a next page. Only the page is then converted, as a range of its own.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param min      String representation of lower end range number.
+     * @param max      String representation of higher end range number.
+     * @return Low & high number of the page, or <code>null</code> if the
+     *         parameters are invalid (400 sent).
+     */
+    private int[] handlePage(HttpServletRequest request, HttpServletResponse response, String min, String max) {
+        // attempt to convert the query params to integers.
+        final int minNum = getNumber(min);
+        final int maxNum = getNumber(max);
+        final String limit = request.getParameter(PARAM_LIMIT);
+        final int limitNum = limit == null ? PageCursor.MAX_LIMIT : getNumber(limit);
+        if (!numeralService.isRangeEligible(minNum, maxNum) || limitNum < 1 || limitNum > PageCursor.MAX_LIMIT) {
+            // log the invalid request.
+            LOG.error("Invalid parameter on paged conversion request. [min = {}, max = {}, limit = {}]", min, max,
+                    limit);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        // resume from the cursor, if given.
+        final String cursor = request.getParameter(PARAM_CURSOR);
+        final int low = cursor == null ? minNum : PageCursor.decode(cursor, minNum, maxNum);
+        if (low < 0) {
+            LOG.error("Invalid cursor on paged conversion request. [cursor = {}]", cursor);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        final int high = (int) Math.min((long) low + limitNum - 1, maxNum);
+        // point the client at the next page.
+        if (high < maxNum) {
+            final String next = PageCursor.encode(minNum, maxNum, high + 1);
+            StringBuilder link = new StringBuilder("<");
+            if (request.getRequestURI() != null) {
+                link.append(request.getRequestURI());
+            }
+            link.append('?').append(PARAM_MIN).append('=').append(minNum).append('&').append(PARAM_MAX).append('=')
+                    .append(maxNum).append('&').append(PARAM_LIMIT).append('=').append(limitNum).append('&')
+                    .append(PARAM_CURSOR).append('=').append(next);
+            if (request.getParameter(PARAM_FORMAT) != null) {
+                link.append('&').append(PARAM_FORMAT).append('=').append(request.getParameter(PARAM_FORMAT));
+            }
+            response.setHeader("X-Next-Cursor", next);
+            response.setHeader("Link", link.append(">; rel=\"next\"").toString());
+        }
+        return new int[] { low, high };
+    }
+
+    /**
+     * Check to see if a range is eligible for conversion. A page of a paged
+     * range request may hold a single number (i.e. the last page, or every page
+     * with <code>limit=1</code>), so pages only need to be in order.
+     * 
+     * @param request Request.
+     * @param minNum  Lower end range number.
+     * @param maxNum  Higher end range number.
+     * @return <code>true</code>, if eligible. <code>false</code>, otherwise.
+     */
+    private boolean isRangeEligible(HttpServletRequest request, int minNum, int maxNum) {
+        if (minNum == maxNum
+                && (request.getParameter(PARAM_LIMIT) != null || request.getParameter(PARAM_CURSOR) != null)) {
+            return numeralService.isEligible(minNum);
+        }
+        return numeralService.isRangeEligible(minNum, maxNum);
     }
 
     /**
@@ -111,39 +538,511 @@ public class NumeralServlet extends HttpServlet {
         // attempt to convert the query params to integers.
         int minNum = getNumber(min);
         int maxNum = getNumber(max);
-        NumeralService numeralService = new StandardFormNumeralServiceImpl();
-        if (!numeralService.isRangeEligible(minNum, maxNum)) {
+        if (!isRangeEligible(request, minNum, maxNum)) {
             // log the invalid request.
             LOG.error("Invalid parameter on conversion request. [min = {}, max = {}]", min, max);
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
+        // check the client's cached copy before converting anything.
+        final String etag = CacheHeaders.etag(PARAM_MIN + PARAM_MAX, minNum, maxNum);
+        if (CacheHeaders.notModified(request, response, etag)) {
+            return;
+        }
+        // serve the pre-encoded range, if available.
+        if (encodedNumerals != null && encodedNumerals.covers(minNum, maxNum)) {
+            final long start = System.nanoTime();
+            ByteBuffer[] json = encodedNumerals.range(minNum, maxNum);
+            encodedRangeSlices.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            ByteBuffer gzip = precompressed(request, response, minNum, maxNum, json);
+            if (gzip != null) {
+                sendEncodedResponse(request, response, CacheHeaders.gzipEtag(etag), gzip);
+            } else {
+                sendEncodedResponse(request, response, etag, json);
+            }
+            return;
+        }
         // perform the actual conversion.
-        Set<NumeralPair> pairs = numeralService.convertToNumeral(minNum, maxNum);
-        // verify we recieved pairs.
-        if (pairs == null || pairs.isEmpty()) {
+        NumeralRange range = numeralService.convertToNumeralRange(minNum, maxNum);
+        // verify we recieved numerals.
+        if (range == null || range.size() == 0) {
             LOG.error("Error converting range [min = {}, max = {}] to numerals.  Check logs.", min, max);
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             return;
         }
+        // stream the converted range to the response, without creating pair objects.
+        CacheHeaders.apply(response, etag);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        CountingOutputStream out = new CountingOutputStream(response.getOutputStream());
+        NumeralFormat.JSON.getWriter().write(range, out);
+        // record the response size.
+        recordResponseSize(request, out.getCount());
+    }
+
+    /**
+     * Handles a request for a range number conversion asynchronously. The
+     * container thread is released once the parameters are validated; the
+     * conversion runs on the conversion executor, and the JSON is written only
+     * while the response is writable (see {@link RangeWriteListener}), so slow
+     * clients do not hold a thread. If parameters are invalid, error JSON will be
+     * returned.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param min      String representation of lower end range number.
+     * @param max      String representation of higher end range number.
+     * @throws IOException
+     */
+    private void handleRangeAsync(HttpServletRequest request, HttpServletResponse response, String min,
+            String max) throws IOException {
+        // attempt to convert the query params to integers.
+        final int minNum = getNumber(min);
+        final int maxNum = getNumber(max);
+        if (!isRangeEligible(request, minNum, maxNum)) {
+            // log the invalid request.
+            LOG.error("Invalid parameter on conversion request. [min = {}, max = {}]", min, max);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        // check the client's cached copy before converting anything.
+        final String etag = CacheHeaders.etag(PARAM_MIN + PARAM_MAX, minNum, maxNum);
+        if (CacheHeaders.notModified(request, response, etag)) {
+            return;
+        }
+        // release the container thread.
+        final AsyncContext asyncContext = startAsync(request, response);
+        asyncContext.setTimeout(ASYNC_TIMEOUT_MILLIS);
+        // write the pre-encoded range, if available. there is nothing to convert.
+        if (encodedNumerals != null && encodedNumerals.covers(minNum, maxNum)) {
+            final long start = System.nanoTime();
+            ByteBuffer[] json = encodedNumerals.range(minNum, maxNum);
+            encodedRangeSlices.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            ByteBuffer gzip = precompressed(request, response, minNum, maxNum, json);
+            if (gzip != null) {
+                startAsyncResponse(asyncContext, CacheHeaders.gzipEtag(etag), gzip);
+            } else {
+                startAsyncResponse(asyncContext, etag, json);
+            }
+            return;
+        }
+        try {
+            App.conversionExecutor.execute(() -> convertRangeAsync(asyncContext, minNum, maxNum, etag));
+        } catch (RejectedExecutionException ree) {
+            rejectAsync(asyncContext, ree);
+        }
+    }
+
+    /**
+     * Converts a range & starts writing it to an async response. Runs on the
+     * conversion executor.
+     * 
+     * @param asyncContext Async context of the request.
+     * @param minNum       Lower end range number.
+     * @param maxNum       Higher end range number.
+     * @param etag         ETag of the response.
+     */
+    private void convertRangeAsync(final AsyncContext asyncContext, final int minNum, final int maxNum,
+            final String etag) {
+        final HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        try {
+            // perform the actual conversion.
+            NumeralRange range = numeralService.convertToNumeralRange(minNum, maxNum);
+            // verify we recieved numerals.
+            if (range == null || range.size() == 0) {
+                LOG.error("Error converting range [min = {}, max = {}] to numerals.  Check logs.", minNum, maxNum);
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                asyncContext.complete();
+                return;
+            }
+            // encode the converted range, so it can be written as the client reads.
+            ByteArrayOutputStream json = new ByteArrayOutputStream(range.size() * 32);
+            NumeralFormat.JSON.getWriter().write(range, json);
+            startAsyncResponse(asyncContext, etag, ByteBuffer.wrap(json.toByteArray()));
+        } catch (RejectedExecutionException ree) {
+            rejectAsync(asyncContext, ree);
+        } catch (Exception e) {
+            LOG.error("Error converting range [min = {}, max = {}] to numerals.", minNum, maxNum, e);
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            asyncContext.complete();
+        }
+    }
+
+    /**
+     * Starts writing an async response (200) from buffers, as the response
+     * becomes writable.
+     * 
+     * @param asyncContext Async context of the request.
+     * @param etag         ETag of the response.
+     * @param json         Buffers of JSON to write, in order.
+     * @throws IOException
+     */
+    private void startAsyncResponse(final AsyncContext asyncContext, final String etag, final ByteBuffer... json)
+            throws IOException {
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        CacheHeaders.apply(response, etag);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentLength(EncodedNumerals.remaining(json));
+        ServletOutputStream out = response.getOutputStream();
+        out.setWriteListener(new RangeWriteListener(asyncContext, out, json));
+    }
+
+    /**
+     * Responds to an async request with <code>503</code> and a
+     * <code>Retry-After</code> header.
+     * 
+     * @param asyncContext Async context of the request.
+     * @param ree          Rejection.
+     */
+    private static void rejectAsync(final AsyncContext asyncContext, final RejectedExecutionException ree) {
+        LOG.warn("Conversion rejected, service saturated.", ree);
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", Integer.toString(App.RETRY_AFTER_SECONDS));
+        asyncContext.complete();
+    }
+
+    /**
+     * Handles a request for a single number conversion in a non-default format
+     * (see {@link NumeralFormat}), written as a range of one. If parameters are
+     * invalid, error JSON will be returned.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param query    Query parameter with string of number to convert.
+     * @param format   Response format.
+     * @throws IOException
+     */
+    private void handleFormattedSingle(HttpServletRequest request, HttpServletResponse response, String query,
+            NumeralFormat format) throws IOException {
+        // attempt to convert the query params to integers.
+        int number = getNumber(query);
+        // check for eligibility
+        if (!numeralService.isEligible(number)) {
+            LOG.error("Invalid parameter on conversion request. [query = {}]", query);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        sendFormattedResponse(request, response, CacheHeaders.etag(PARAM_QUERY + "." + format.getName(), number),
+                format, number, number);
+    }
+
+    /**
+     * Handles a request for a range number conversion in a non-default format
+     * (see {@link NumeralFormat}). If parameters are invalid, error JSON will be
+     * returned.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param min      String representation of lower end range number.
+     * @param max      String representation of higher end range number.
+     * @param format   Response format.
+     * @throws IOException
+     */
+    private void handleFormattedRange(HttpServletRequest request, HttpServletResponse response, String min,
+            String max, NumeralFormat format) throws IOException {
+        // attempt to convert the query params to integers.
+        int minNum = getNumber(min);
+        int maxNum = getNumber(max);
+        if (!isRangeEligible(request, minNum, maxNum)) {
+            LOG.error("Invalid parameter on conversion request. [min = {}, max = {}]", min, max);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        sendFormattedResponse(request, response,
+                CacheHeaders.etag(PARAM_MIN + PARAM_MAX + "." + format.getName(), minNum, maxNum), format, minNum,
+                maxNum);
+    }
+
+    /**
+     * Converts a (validated) range & streams it to the response in a format.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param etag     ETag of the response.
+     * @param format   Response format.
+     * @param minNum   Lower end range number.
+     * @param maxNum   Higher end range number (same as <code>minNum</code> for a
+     *                 single number).
+     * @throws IOException
+     */
+    private void sendFormattedResponse(HttpServletRequest request, HttpServletResponse response, String etag,
+            NumeralFormat format, int minNum, int maxNum) throws IOException {
+        // check the client's cached copy before converting anything.
+        if (CacheHeaders.notModified(request, response, etag)) {
+            return;
+        }
+        // perform the actual conversion.
+        NumeralRange range;
+        if (minNum == maxNum) {
+            NumeralPair pair = numeralService.convertToNumeral(minNum);
+            range = pair == null ? null : singleRange(pair);
+        } else {
+            range = numeralService.convertToNumeralRange(minNum, maxNum);
+        }
+        // verify we recieved numerals.
+        if (range == null || range.size() == 0) {
+            LOG.error("Error converting range [min = {}, max = {}] to numerals.  Check logs.", minNum, maxNum);
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
+        }
+        // stream the converted range to the response.
+        CacheHeaders.apply(response, etag);
+        response.setContentType(format.getContentType());
+        response.setStatus(HttpServletResponse.SC_OK);
+        CountingOutputStream out = new CountingOutputStream(response.getOutputStream());
+        format.getWriter().write(range, out);
+        // record the response size.
+        recordResponseSize(request, out.getCount());
+    }
+
+    /**
+     * Get a range of one, holding a single numeral pair.
+     * 
+     * @param pair Numeral pair.
+     * @return Range.
+     */
+    private static NumeralRange singleRange(final NumeralPair pair) {
+        final byte[] numeral = pair.getNumeral().getBytes(StandardCharsets.UTF_8);
+        return new NumeralRange(pair.getNumber(), 1, numeral, new int[] { 0, numeral.length }, 0);
+    }
+
+    /**
+     * Handles a request for a single extended (vinculum) number conversion.
+     * Returns a numeral pair JSON object, if successful. If parameters are
+     * invalid, error JSON will be returned.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param query    Query parameter with string of number to convert.
+     * @throws IOException
+     */
+    private void handleExtendedSingle(HttpServletRequest request, HttpServletResponse response, String query)
+            throws IOException {
+        // attempt to convert the query params to longs.
+        long number = getLongNumber(query);
+        // check for eligibility
+        if (!extendedNumeralService.isEligible(number)) {
+            LOG.error("Invalid parameter on extended conversion request. [query = {}]", query);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        // check the client's cached copy before converting anything.
+        final String etag = CacheHeaders.etag(PARAM_EXTENDED + PARAM_QUERY, number);
+        if (CacheHeaders.notModified(request, response, etag)) {
+            return;
+        }
+        // perform the actual conversion
+        String numeral = extendedNumeralService.convertToNumeral(number);
         // write the converted pair to the response.
-        ObjectMapper mapper = new ObjectMapper();
-        sendResponse(response, mapper.writeValueAsString(pairs));
+        CacheHeaders.apply(response, etag);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        CountingOutputStream out = new CountingOutputStream(response.getOutputStream());
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            writePair(generator, number, numeral);
+        }
+        // record the response size.
+        recordResponseSize(request, out.getCount());
     }
 
     /**
-     * Sends a response (200) with message.
+     * Handles a request for an extended (vinculum) range number conversion.
+     * Numerals are streamed to the response as a JSON array of numeral pair
+     * objects while they are converted, so memory use does not depend on the
+     * width of the range. If parameters are invalid, error JSON will be
+     * returned.
      * 
+     * @param request  Request.
      * @param response Response.
-     * @param message  Message to send (typically JSON string).
+     * @param min      String representation of lower end range number.
+     * @param max      String representation of higher end range number.
      * @throws IOException
      */
-    private void sendResponse(HttpServletResponse response, String message) throws IOException {
+    private void handleExtendedRange(HttpServletRequest request, HttpServletResponse response, String min,
+            String max) throws IOException {
+        // attempt to convert the query params to longs.
+        long minNum = getLongNumber(min);
+        long maxNum = getLongNumber(max);
+        if (!extendedNumeralService.isRangeEligible(minNum, maxNum)) {
+            LOG.error("Invalid parameter on extended conversion request. [min = {}, max = {}]", min, max);
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        // check the client's cached copy before converting anything.
+        final String etag = CacheHeaders.etag(PARAM_EXTENDED + PARAM_MIN + PARAM_MAX, minNum, maxNum);
+        if (CacheHeaders.notModified(request, response, etag)) {
+            return;
+        }
+        // status & headers must be set before streaming starts.
+        CacheHeaders.apply(response, etag);
         response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
         response.setStatus(HttpServletResponse.SC_OK);
-        response.getWriter().write(message);
+        CountingOutputStream out = new CountingOutputStream(response.getOutputStream());
+        try (final JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartArray();
+            // stream each pair as it is converted.
+            extendedNumeralService.convertToNumerals(minNum, maxNum, (number, numeral) -> {
+                writePair(generator, number, numeral);
+            });
+            generator.writeEndArray();
+        }
         // record the response size.
-        responseSizes.update(message.length());
+        recordResponseSize(request, out.getCount());
+    }
+
+    /**
+     * Writes a numeral pair JSON object.
+     * 
+     * @param generator JSON generator to write to.
+     * @param number    Number.
+     * @param numeral   Numeral.
+     * @throws IOException
+     */
+    private static void writePair(JsonGenerator generator, long number, CharSequence numeral) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("number", number);
+        generator.writeFieldName("numeral");
+        generator.writeString(numeral.toString());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Sends a response (200), streaming <code>value</code> as JSON straight to
+     * the response output stream.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param etag     ETag of the response, or <code>null</code> if not
+     *                 cacheable.
+     * @param value    Value to send (numeral pair(s)).
+     * @throws IOException
+     */
+    private void sendResponse(HttpServletRequest request, HttpServletResponse response, String etag, Object value)
+            throws IOException {
+        CacheHeaders.apply(response, etag);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        CountingOutputStream out = new CountingOutputStream(response.getOutputStream());
+        OBJECT_WRITER.writeValue(out, value);
+        // record the response size (bytes written).
+        recordResponseSize(request, out.getCount());
+    }
+
+    /**
+     * Sends a response (200) of pre-encoded JSON. On Jetty, the buffers are handed
+     * to the connection as they are (no copies); otherwise they are copied out
+     * through the output stream.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param etag     ETag of the response.
+     * @param json     Buffers of JSON to send, in order.
+     * @throws IOException
+     */
+    private void sendEncodedResponse(HttpServletRequest request, HttpServletResponse response, String etag,
+            ByteBuffer... json) throws IOException {
+        CacheHeaders.apply(response, etag);
+        final int length = EncodedNumerals.remaining(json);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentLength(length);
+        ServletOutputStream out = response.getOutputStream();
+        if (out instanceof HttpOutput) {
+            for (ByteBuffer buffer : json) {
+                ((HttpOutput) out).write(buffer);
+            }
+        } else {
+            byte[] chunk = new byte[Math.min(length, ASYNC_WRITE_CHUNK_SIZE)];
+            for (ByteBuffer buffer : json) {
+                while (buffer.hasRemaining()) {
+                    int chunkLength = Math.min(chunk.length, buffer.remaining());
+                    buffer.get(chunk, 0, chunkLength);
+                    out.write(chunk, 0, chunkLength);
+                }
+            }
+        }
+        // record the response size.
+        recordResponseSize(request, length);
+    }
+
+    /**
+     * Get the precompressed (gzip) copy of an encoded range, if the range is hot
+     * & the client accepts gzip. If so, the response is marked as gzip encoded
+     * (so it is not compressed again) & the uncompressed size is recorded.
+     * 
+     * @param request  Request.
+     * @param response Response.
+     * @param minNum   Lower end range number.
+     * @param maxNum   Higher end range number.
+     * @param json     Encoded range.
+     * @return Gzip payload, or <code>null</code> to send <code>json</code> as is.
+     */
+    private ByteBuffer precompressed(HttpServletRequest request, HttpServletResponse response, int minNum,
+            int maxNum, ByteBuffer[] json) {
+        if (precompressedNumerals == null || !precompressedNumerals.isHot(minNum, maxNum)
+                || !acceptsGzip(request.getHeader("Accept-Encoding"))) {
+            return null;
+        }
+        ByteBuffer gzip = precompressedNumerals.gzip(minNum, maxNum, json);
+        request.setAttribute(UNCOMPRESSED_SIZE_ATTRIBUTE, (long) EncodedNumerals.remaining(json));
+        response.setHeader("Content-Encoding", "gzip");
+        response.addHeader("Vary", "Accept-Encoding");
+        return gzip;
+    }
+
+    /**
+     * Check to see if an <code>Accept-Encoding</code> header accepts gzip.
+     * 
+     * @param acceptEncoding Header value (may be <code>null</code>).
+     * @return <code>true</code>, if gzip is accepted. <code>false</code>,
+     *         otherwise.
+     */
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException nfe) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records the size of a successful response. The size is also kept on the
+     * request as its uncompressed size (unless already set), so it can be
+     * compared with the bytes sent once the response completes.
+     * 
+     * @param request Request.
+     * @param size    Bytes written by the servlet.
+     */
+    private void recordResponseSize(ServletRequest request, long size) {
+        responseSizes.update(size);
+        if (request.getAttribute(UNCOMPRESSED_SIZE_ATTRIBUTE) == null) {
+            request.setAttribute(UNCOMPRESSED_SIZE_ATTRIBUTE, size);
+        }
     }
 
     /**
@@ -163,4 +1062,179 @@ public class NumeralServlet extends HttpServlet {
         return -1;
     }
 
+    /**
+     * Reads a JSON array or newline separated list of integers. Stops reading
+     * once more than {@link #MAX_BATCH_SIZE} numbers have been read, so the
+     * returned array is at most one larger than the limit.
+     * 
+     * @param reader Reader for the request body.
+     * @return Numbers read, or <code>null</code> if the body is empty or
+     *         invalid.
+     * @throws IOException
+     */
+    private int[] readNumbers(final BufferedReader reader) throws IOException {
+        int[] numbers = new int[64];
+        int count = 0;
+        // peek at the first non whitespace character to determine the format.
+        int c;
+        do {
+            reader.mark(1);
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        reader.reset();
+        if (c == -1) {
+            return null;
+        }
+        if (c == '[') {
+            // json array.
+            try (JsonParser parser = JSON_FACTORY.createParser(reader)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    return null;
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) == JsonToken.VALUE_NUMBER_INT && count <= MAX_BATCH_SIZE) {
+                    if (count == numbers.length) {
+                        numbers = Arrays.copyOf(numbers, numbers.length * 2);
+                    }
+                    numbers[count++] = parser.getIntValue();
+                }
+                if (count <= MAX_BATCH_SIZE && (token != JsonToken.END_ARRAY || parser.nextToken() != null)) {
+                    return null;
+                }
+            } catch (JsonProcessingException jpe) {
+                LOG.debug("Invalid JSON found.", jpe);
+                return null;
+            }
+        } else {
+            // newline separated.
+            String line;
+            while ((line = reader.readLine()) != null && count <= MAX_BATCH_SIZE) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    if (count == numbers.length) {
+                        numbers = Arrays.copyOf(numbers, numbers.length * 2);
+                    }
+                    numbers[count++] = Integer.parseInt(line);
+                } catch (NumberFormatException nfe) {
+                    LOG.debug("Invalid number found.", nfe);
+                    return null;
+                }
+            }
+        }
+        return count == 0 ? null : Arrays.copyOf(numbers, count);
+    }
+
+    /**
+     * Attempt to convert the <code>number</code> to a long.
+     * 
+     * @param number String to convert.
+     * @return Long version of <code>number</code>, if possible. If not, -1;
+     */
+    private long getLongNumber(final String number) {
+        if (number != null && number.length() > 0) {
+            try {
+                return Long.parseLong(number);
+            } catch (NumberFormatException nfe) {
+                LOG.debug("Invalid number found.", nfe);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes an encoded response body only while the response is writable,
+     * completing the async request once the whole body has been written. The
+     * container calls {@link #onWritePossible()} again when a slow client has
+     * drained the socket, so no thread waits on the client. On Jetty, each
+     * buffer is handed to the connection as it is (no copies).
+     */
+    private class RangeWriteListener implements WriteListener {
+
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private final ByteBuffer[] body;
+        private final int size;
+        private int index;
+        private byte[] chunk;
+
+        RangeWriteListener(AsyncContext asyncContext, ServletOutputStream out, ByteBuffer[] body) {
+            this.asyncContext = asyncContext;
+            this.out = out;
+            this.body = body;
+            this.size = EncodedNumerals.remaining(body);
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (out.isReady()) {
+                if (index == body.length) {
+                    // record the response size.
+                    recordResponseSize(asyncContext.getRequest(), size);
+                    asyncContext.complete();
+                    return;
+                }
+                ByteBuffer buffer = body[index];
+                if (out instanceof HttpOutput) {
+                    // jetty takes the whole buffer, & is not ready until it is written.
+                    ((HttpOutput) out).write(buffer);
+                    index++;
+                } else if (buffer.hasRemaining()) {
+                    if (chunk == null) {
+                        chunk = new byte[ASYNC_WRITE_CHUNK_SIZE];
+                    }
+                    int length = Math.min(chunk.length, buffer.remaining());
+                    buffer.get(chunk, 0, length);
+                    out.write(chunk, 0, length);
+                } else {
+                    index++;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOG.error("Error writing range response. [buffersWritten = {}, size = {}]", index, size, t);
+            asyncContext.complete();
+        }
+
+    }
+
+    /**
+     * Output stream which counts the bytes written through it.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // leave the response output stream open for the container.
+            flush();
+        }
+
+        long getCount() {
+            return count;
+        }
+
+    }
+
 }
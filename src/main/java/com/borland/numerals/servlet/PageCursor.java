@@ -0,0 +1,74 @@
+package com.borland.numerals.servlet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for paging through a range conversion. A cursor points at the
+ * first number of the next page & is bound to the range it was issued for, so
+ * it cannot be replayed against a different <code>min</code> &
+ * <code>max</code>.
+ *
+ * Cursors are base64url encoded (without padding) so they can be used as a
+ * query string parameter as is.
+ *
+ * @author chrismborland
+ */
+final class PageCursor {
+
+    /**
+     * Maximum amount of numbers in a single page.
+     */
+    static final int MAX_LIMIT = 3999;
+
+    // prefix of an encoded cursor's plain text, versioned with the engine.
+    private static final String PREFIX = "v" + CacheHeaders.ENGINE_VERSION + ":";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PageCursor() {
+
+    }
+
+    /**
+     * Encodes a cursor pointing at the start of the next page.
+     *
+     * @param minNum Lower end of the paged range.
+     * @param maxNum Higher end of the paged range.
+     * @param next   First number of the next page.
+     * @return Cursor.
+     */
+    static String encode(final int minNum, final int maxNum, final int next) {
+        String plain = PREFIX + minNum + ":" + maxNum + ":" + next;
+        return ENCODER.encodeToString(plain.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor issued for a range.
+     *
+     * @param cursor Cursor.
+     * @param minNum Lower end of the paged range.
+     * @param maxNum Higher end of the paged range.
+     * @return First number of the page the cursor points at, or <code>-1</code>
+     *         if the cursor is malformed or was not issued for this range.
+     */
+    static int decode(final String cursor, final int minNum, final int maxNum) {
+        try {
+            String plain = new String(DECODER.decode(cursor), StandardCharsets.US_ASCII);
+            if (!plain.startsWith(PREFIX)) {
+                return -1;
+            }
+            String[] parts = plain.substring(PREFIX.length()).split(":");
+            if (parts.length != 3 || Integer.parseInt(parts[0]) != minNum || Integer.parseInt(parts[1]) != maxNum) {
+                return -1;
+            }
+            int next = Integer.parseInt(parts[2]);
+            return next >= minNum && next <= maxNum ? next : -1;
+        } catch (IllegalArgumentException iae) {
+            // not base64, or not numbers (NumberFormatException).
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.borland.numerals.servlet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.borland.numerals.App;
+import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+
+/**
+ * Gzip copies of the hottest range payloads, compressed once (at the best
+ * compression level) on first use & then served as is, so identical bytes are
+ * never recompressed per request. Hot payloads are the full range plus every
+ * aligned, fixed-width window (i.e. <code>1-100</code>, <code>101-200</code>
+ * for a width of 100) of the configured widths, so the cache is bounded.
+ * 
+ * @author chrismborland
+ */
+final class PrecompressedNumerals {
+
+    private final int minNumber;
+    private final int maxNumber;
+    private final int[] windowWidths;
+
+    // compressed payloads, keyed by range.
+    private final ConcurrentMap<Long, ByteBuffer> payloads = new ConcurrentHashMap<>();
+
+    /**
+     * Package constructor.
+     * 
+     * @param minNumber    Lowest number of the full range.
+     * @param maxNumber    Highest number of the full range.
+     * @param windowWidths Widths of the hot aligned windows.
+     */
+    PrecompressedNumerals(final int minNumber, final int maxNumber, final int[] windowWidths) {
+        this.minNumber = minNumber;
+        this.maxNumber = maxNumber;
+        this.windowWidths = windowWidths.clone();
+    }
+
+    /**
+     * Get the shared standard form cache. Created on first use, so servlets that
+     * do not serve the standard form encoding never create it.
+     * 
+     * @return Precompressed cache.
+     */
+    static PrecompressedNumerals standardForm() {
+        return StandardForm.PRECOMPRESSED;
+    }
+
+    /**
+     * Creates the standard form cache, with window widths from the
+     * {@link App#PRECOMPRESSED_WIDTHS_PROPERTY} system property.
+     * 
+     * @return Precompressed cache.
+     */
+    private static PrecompressedNumerals createStandardForm() {
+        String[] widths = System.getProperty(App.PRECOMPRESSED_WIDTHS_PROPERTY, App.DEFAULT_PRECOMPRESSED_WIDTHS)
+                .split(",");
+        int[] windowWidths = new int[widths.length];
+        int count = 0;
+        for (String width : widths) {
+            try {
+                int windowWidth = Integer.parseInt(width.trim());
+                if (windowWidth > 1) {
+                    windowWidths[count++] = windowWidth;
+                }
+            } catch (NumberFormatException nfe) {
+                // ignore invalid widths.
+            }
+        }
+        return new PrecompressedNumerals(StandardFormNumeralServiceImpl.MIN_NUMERAL,
+                StandardFormNumeralServiceImpl.MAX_NUMERAL, Arrays.copyOf(windowWidths, count));
+    }
+
+    /**
+     * Check to see if a range is a hot payload.
+     * 
+     * @param lowNumber  Low end of range.
+     * @param highNumber High end of range.
+     * @return <code>true</code>, if hot. <code>false</code>, otherwise.
+     */
+    boolean isHot(final int lowNumber, final int highNumber) {
+        if (lowNumber == minNumber && highNumber == maxNumber) {
+            return true;
+        }
+        for (int width : windowWidths) {
+            if ((lowNumber - minNumber) % width == 0 && highNumber - lowNumber + 1 == width
+                    && highNumber <= maxNumber) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the gzip copy of a hot range payload, compressing it on first use.
+     * 
+     * @param lowNumber  Low end of range (must be hot).
+     * @param highNumber High end of range (must be hot).
+     * @param json       Uncompressed payload buffers, in order (not consumed).
+     * @return Read-only buffer of the gzip payload.
+     */
+    ByteBuffer gzip(final int lowNumber, final int highNumber, final ByteBuffer... json) {
+        final long key = ((long) lowNumber << 32) | highNumber;
+        return payloads.computeIfAbsent(key, k -> compress(json)).duplicate();
+    }
+
+    /**
+     * Get the amount of payloads compressed so far.
+     * 
+     * @return Payload count.
+     */
+    int size() {
+        return payloads.size();
+    }
+
+    private static ByteBuffer compress(final ByteBuffer... json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(EncodedNumerals.remaining(json) / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            byte[] chunk = new byte[8192];
+            for (ByteBuffer buffer : json) {
+                ByteBuffer source = buffer.duplicate();
+                while (source.hasRemaining()) {
+                    int length = Math.min(chunk.length, source.remaining());
+                    source.get(chunk, 0, length);
+                    gzip.write(chunk, 0, length);
+                }
+            }
+        } catch (IOException ioe) {
+            // in memory; not expected.
+            throw new UncheckedIOException(ioe);
+        }
+        return ByteBuffer.wrap(compressed.toByteArray()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Holds the shared standard form cache, so it is only created once this
+     * class is initialized (on first use).
+     */
+    private static final class StandardForm {
+
+        private static final PrecompressedNumerals PRECOMPRESSED = createStandardForm();
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.borland.numerals.servlet;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+
+import com.borland.numerals.concurrent.ThreadSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Filter which hands each request off the container's thread onto a new thread
+ * of its own (a virtual thread, when enabled via {@link ThreadSupport}). The
+ * container thread is released immediately, so the container's pool only
+ * services connections and cheap threads carry the blocking request work.
+ * 
+ * @author chrismborland
+ */
+public class ThreadPerRequestFilter implements Filter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadPerRequestFilter.class);
+
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Default constructor. Uses the application's request thread factory.
+     */
+    public ThreadPerRequestFilter() {
+        this(ThreadSupport.newThreadFactory("numerals-request-"));
+    }
+
+    /**
+     * Public constructor.
+     * 
+     * @param threadFactory Factory for request threads.
+     */
+    public ThreadPerRequestFilter(final ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        final AsyncContext asyncContext = request.startAsync();
+        // the request thread bounds the work, not the container.
+        asyncContext.setTimeout(0);
+        threadFactory.newThread(() -> {
+            try {
+                chain.doFilter(asyncContext.getRequest(), asyncContext.getResponse());
+            } catch (Exception e) {
+                LOG.error("Exception handling request.", e);
+                ((HttpServletResponse) asyncContext.getResponse())
+                        .setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            } finally {
+                asyncContext.complete();
+            }
+        }).start();
+    }
+
+    @Override
+    public void destroy() {
+
+    }
+
+}
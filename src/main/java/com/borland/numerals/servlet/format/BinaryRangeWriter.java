@@ -0,0 +1,34 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.IOException;
+
+import com.borland.numerals.service.NumeralRange;
+
+/**
+ * Writes a range in a compact, length-prefixed binary format. Integers are
+ * big-endian & numbers are implicit (<code>start + i</code>):
+ * 
+ * <pre>
+ * start    (int32)  first number of the range
+ * count    (int32)  amount of numerals
+ * numerals count x [length (uint8), ASCII numeral bytes]
+ * </pre>
+ * 
+ * @author chrismborland
+ */
+public class BinaryRangeWriter extends BufferedRangeWriter {
+
+    @Override
+    void write(final NumeralRange range, final OutputBuffer buffer) throws IOException {
+        writeInt(buffer, range.getLowNumber());
+        writeInt(buffer, range.size());
+        range.forEachNumeral((number, numerals, offset, length) -> {
+            buffer.appendByte(length).append(numerals, offset, length);
+        });
+    }
+
+    private static void writeInt(final OutputBuffer buffer, final int value) throws IOException {
+        buffer.appendByte(value >>> 24).appendByte(value >>> 16).appendByte(value >>> 8).appendByte(value);
+    }
+
+}
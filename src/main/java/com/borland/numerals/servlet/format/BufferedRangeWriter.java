@@ -0,0 +1,96 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.borland.numerals.service.NumeralRange;
+
+/**
+ * Base for formats written byte by byte (ASCII text or binary). Output is
+ * gathered into a small buffer, so the underlying stream sees a few large
+ * writes rather than one per token.
+ * 
+ * @author chrismborland
+ */
+abstract class BufferedRangeWriter implements NumeralRangeWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    @Override
+    public final void write(final NumeralRange range, final OutputStream out) throws IOException {
+        final OutputBuffer buffer = new OutputBuffer(out);
+        write(range, buffer);
+        buffer.flush();
+    }
+
+    /**
+     * Writes the range to the buffer.
+     * 
+     * @param range  Range to write.
+     * @param buffer Buffer to write to.
+     * @throws IOException
+     */
+    abstract void write(NumeralRange range, OutputBuffer buffer) throws IOException;
+
+    /**
+     * Buffer of output in front of a stream.
+     */
+    static final class OutputBuffer {
+
+        private final OutputStream out;
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private int count;
+
+        OutputBuffer(final OutputStream out) {
+            this.out = out;
+        }
+
+        OutputBuffer append(final char c) throws IOException {
+            return appendByte(c);
+        }
+
+        OutputBuffer appendByte(final int b) throws IOException {
+            if (count == bytes.length) {
+                drain();
+            }
+            bytes[count++] = (byte) b;
+            return this;
+        }
+
+        OutputBuffer append(final String ascii) throws IOException {
+            for (int i = 0; i < ascii.length(); i++) {
+                append(ascii.charAt(i));
+            }
+            return this;
+        }
+
+        OutputBuffer append(final int number) throws IOException {
+            return append(Integer.toString(number));
+        }
+
+        OutputBuffer append(final byte[] ascii, final int offset, final int length) throws IOException {
+            if (count + length > bytes.length) {
+                drain();
+                if (length > bytes.length) {
+                    out.write(ascii, offset, length);
+                    return this;
+                }
+            }
+            System.arraycopy(ascii, offset, bytes, count, length);
+            count += length;
+            return this;
+        }
+
+        void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        private void drain() throws IOException {
+            out.write(bytes, 0, count);
+            count = 0;
+        }
+
+    }
+
+}
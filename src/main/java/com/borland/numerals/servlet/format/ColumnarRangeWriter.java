@@ -0,0 +1,32 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.IOException;
+
+import com.borland.numerals.service.NumeralRange;
+
+/**
+ * Writes a range as columnar JSON. Numbers are implicit: the numeral at index
+ * <code>i</code> is for number <code>start + i</code>.
+ * 
+ * <pre>
+ * {"start":1,"numerals":["I","II"]}
+ * </pre>
+ * 
+ * @author chrismborland
+ */
+public class ColumnarRangeWriter extends BufferedRangeWriter {
+
+    @Override
+    void write(final NumeralRange range, final OutputBuffer buffer) throws IOException {
+        buffer.append("{\"start\":").append(range.getLowNumber()).append(",\"numerals\":[");
+        // numerals are plain ascii letters; nothing needs escaping.
+        range.forEachNumeral((number, numerals, offset, length) -> {
+            if (number != range.getLowNumber()) {
+                buffer.append(',');
+            }
+            buffer.append('"').append(numerals, offset, length).append('"');
+        });
+        buffer.append("]}");
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.IOException;
+
+import com.borland.numerals.service.NumeralRange;
+
+/**
+ * Writes a range as CSV (RFC 4180) with a header row:
+ * 
+ * <pre>
+ * number,numeral
+ * 1,I
+ * 2,II
+ * </pre>
+ * 
+ * @author chrismborland
+ */
+public class CsvRangeWriter extends BufferedRangeWriter {
+
+    @Override
+    void write(final NumeralRange range, final OutputBuffer buffer) throws IOException {
+        buffer.append("number,numeral\r\n");
+        // numerals are plain ascii letters; nothing needs quoting.
+        range.forEachNumeral((number, numerals, offset, length) -> {
+            buffer.append(number).append(',').append(numerals, offset, length).append("\r\n");
+        });
+    }
+
+}
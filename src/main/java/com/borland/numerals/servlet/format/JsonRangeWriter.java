@@ -0,0 +1,42 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.borland.numerals.service.NumeralRange;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a range as a JSON array of numeral pair objects (the default format):
+ * 
+ * <pre>
+ * [{"number":1,"numeral":"I"},{"number":2,"numeral":"II"}]
+ * </pre>
+ * 
+ * @author chrismborland
+ */
+public class JsonRangeWriter implements NumeralRangeWriter {
+
+    // shared (thread safe) factory for streaming json.
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    @Override
+    public void write(final NumeralRange range, final OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            // numerals are already ascii (utf-8) bytes; write them without decoding.
+            range.forEachNumeral((number, numerals, offset, length) -> {
+                generator.writeStartObject();
+                generator.writeNumberField("number", number);
+                generator.writeFieldName("numeral");
+                generator.writeUTF8String(numerals, offset, length);
+                generator.writeEndObject();
+            });
+            generator.writeEndArray();
+        }
+    }
+
+}
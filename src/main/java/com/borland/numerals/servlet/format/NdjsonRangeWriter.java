@@ -0,0 +1,29 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.IOException;
+
+import com.borland.numerals.service.NumeralRange;
+
+/**
+ * Writes a range as newline delimited JSON (one numeral pair object per line),
+ * so streaming consumers can process pairs as they arrive:
+ * 
+ * <pre>
+ * {"number":1,"numeral":"I"}
+ * {"number":2,"numeral":"II"}
+ * </pre>
+ * 
+ * @author chrismborland
+ */
+public class NdjsonRangeWriter extends BufferedRangeWriter {
+
+    @Override
+    void write(final NumeralRange range, final OutputBuffer buffer) throws IOException {
+        // numerals are plain ascii letters; nothing needs escaping.
+        range.forEachNumeral((number, numerals, offset, length) -> {
+            buffer.append("{\"number\":").append(number).append(",\"numeral\":\"").append(numerals, offset, length)
+                    .append("\"}\n");
+        });
+    }
+
+}
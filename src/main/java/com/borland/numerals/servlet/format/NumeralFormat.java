@@ -0,0 +1,138 @@
+package com.borland.numerals.servlet.format;
+
+/**
+ * Response formats for numeral ranges (and single numbers, as a range of one).
+ * The format is chosen with the <code>format</code> query string parameter or,
+ * failing that, negotiated from the <code>Accept</code> header.
+ * 
+ * @author chrismborland
+ */
+public enum NumeralFormat {
+
+    /**
+     * JSON array of numeral pair objects (default).
+     */
+    JSON("json", "application/json", new JsonRangeWriter()),
+
+    /**
+     * Newline delimited JSON numeral pair objects.
+     */
+    NDJSON("ndjson", "application/x-ndjson", new NdjsonRangeWriter()),
+
+    /**
+     * CSV with a header row.
+     */
+    CSV("csv", "text/csv", new CsvRangeWriter()),
+
+    /**
+     * Columnar JSON (<code>{"start":N,"numerals":[...]}</code>).
+     */
+    COLUMNAR("columnar", "application/vnd.numerals.columnar+json", new ColumnarRangeWriter()),
+
+    /**
+     * Length-prefixed binary.
+     */
+    BINARY("binary", "application/vnd.numerals.binary", new BinaryRangeWriter());
+
+    private final String name;
+    private final String contentType;
+    private final NumeralRangeWriter writer;
+
+    private NumeralFormat(final String name, final String contentType, final NumeralRangeWriter writer) {
+        this.name = name;
+        this.contentType = contentType;
+        this.writer = writer;
+    }
+
+    /**
+     * Get the name of the format (as used by the <code>format</code> parameter).
+     * 
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the media type of the format.
+     * 
+     * @return Content type.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Get the (thread safe) streaming writer for the format.
+     * 
+     * @return Writer.
+     */
+    public NumeralRangeWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Chooses the format for a request. An explicit <code>format</code>
+     * parameter wins; otherwise the supported media type with the highest
+     * quality in <code>accept</code> is chosen (earliest first on ties). Requests
+     * accepting nothing supported get {@link #JSON}.
+     * 
+     * @param format Format parameter (may be <code>null</code>).
+     * @param accept Accept header (may be <code>null</code>).
+     * @return Format, or <code>null</code> if the format parameter is unknown.
+     */
+    public static NumeralFormat negotiate(final String format, final String accept) {
+        if (format != null) {
+            for (NumeralFormat candidate : values()) {
+                if (candidate.name.equalsIgnoreCase(format)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+        if (accept == null) {
+            return JSON;
+        }
+        NumeralFormat best = JSON;
+        double bestQuality = 0;
+        for (String range : accept.split(",")) {
+            String[] parts = range.split(";");
+            String mediaType = parts[0].trim();
+            double quality = quality(parts);
+            if (quality <= bestQuality) {
+                continue;
+            }
+            for (NumeralFormat candidate : values()) {
+                if (candidate.contentType.equalsIgnoreCase(mediaType)) {
+                    best = candidate;
+                    bestQuality = quality;
+                }
+            }
+            if (mediaType.equals("*/*") || mediaType.equalsIgnoreCase("application/*")) {
+                // wildcards get the default.
+                best = JSON;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the quality (<code>q</code> parameter) of a media range. Defaults to
+     * 1.
+     */
+    private static double quality(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException nfe) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.borland.numerals.servlet.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.borland.numerals.service.NumeralRange;
+
+/**
+ * Streaming writer of a numeral range in one response format. Numerals are
+ * written straight from the range's packed bytes as they are visited; nothing
+ * is built up in memory first.
+ * 
+ * @author chrismborland
+ */
+public interface NumeralRangeWriter {
+
+    /**
+     * Writes the range to <code>out</code>. The stream is flushed, but not
+     * closed.
+     * 
+     * @param range Range to write.
+     * @param out   Stream to write to.
+     * @throws IOException
+     */
+    public void write(NumeralRange range, OutputStream out) throws IOException;
+
+}
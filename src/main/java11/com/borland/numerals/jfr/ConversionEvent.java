@@ -0,0 +1,116 @@
+package com.borland.numerals.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event for a conversion by the conversion service.
+ *
+ * This is the Java 11 version (multi-release JAR). Only conversions taking
+ * longer than the threshold (default 5 ms) are recorded; override it with JFR
+ * settings, i.e. <code>com.borland.numerals.Conversion#threshold=1 ms</code>.
+ *
+ * Usage: {@link #begin()} & {@link #end()} around the conversion, then only
+ * when {@link #shouldCommit()}, set the fields & {@link #commit()}.
+ *
+ * @author chrismborland
+ */
+@Name("com.borland.numerals.Conversion")
+@Label("Numerals Conversion")
+@Category("Numerals")
+@Description("Conversion by the standard form numeral service.")
+@Threshold("5 ms")
+@StackTrace(false)
+public class ConversionEvent extends Event {
+
+    // conversion kinds.
+    public static final String SINGLE = "single";
+    public static final String RANGE = "range";
+    public static final String BATCH = "batch";
+
+    @Label("Kind")
+    @Description("Conversion kind (single, range or batch).")
+    private String kind;
+
+    @Label("Low Number")
+    private int lowNumber;
+
+    @Label("High Number")
+    private int highNumber;
+
+    @Label("Width")
+    @Description("Numbers converted.")
+    private int width;
+
+    @Label("Parallelism")
+    @Description("Range pool parallelism.")
+    private int parallelism;
+
+    @Label("Block Size")
+    @Description("Numbers converted per fork/join block.")
+    private int blockSize;
+
+    @Label("Queue Wait")
+    @Description("Time waiting for a range pool worker.")
+    @Timespan(Timespan.NANOSECONDS)
+    private long queueWait;
+
+    @Label("Execution Time")
+    @Description("Time converting, once picked up by a range pool worker.")
+    @Timespan(Timespan.NANOSECONDS)
+    private long executionTime;
+
+    @Label("Successful")
+    private boolean successful;
+
+    /**
+     * @param kind       Conversion kind ({@link #SINGLE}, {@link #RANGE} or
+     *                   {@link #BATCH}).
+     * @param lowNumber  Lowest number converted.
+     * @param highNumber Highest number converted.
+     * @param width      Numbers converted.
+     */
+    public void setConversion(final String kind, final int lowNumber, final int highNumber, final int width) {
+        this.kind = kind;
+        this.lowNumber = lowNumber;
+        this.highNumber = highNumber;
+        this.width = width;
+    }
+
+    /**
+     * @param parallelism Range pool parallelism.
+     * @param blockSize   Numbers converted per fork/join block.
+     */
+    public void setRangePool(final int parallelism, final int blockSize) {
+        this.parallelism = parallelism;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @param nanos Time waiting for a range pool worker.
+     */
+    public void setQueueWait(final long nanos) {
+        this.queueWait = nanos;
+    }
+
+    /**
+     * @param nanos Time converting, once picked up by a range pool worker.
+     */
+    public void setExecutionTime(final long nanos) {
+        this.executionTime = nanos;
+    }
+
+    /**
+     * @param successful Whether the conversion succeeded.
+     */
+    public void setSuccessful(final boolean successful) {
+        this.successful = successful;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.borland.numerals.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event for a numerals request.
+ *
+ * This is the Java 11 version (multi-release JAR). Only requests taking longer
+ * than the threshold (default 10 ms) are recorded; override it with JFR
+ * settings, i.e. <code>com.borland.numerals.Request#threshold=50 ms</code>.
+ * Async requests are committed on the thread completing the response.
+ *
+ * Usage: {@link #begin()} & {@link #end()} around the request, then only when
+ * {@link #shouldCommit()}, set the fields & {@link #commit()}.
+ *
+ * @author chrismborland
+ */
+@Name("com.borland.numerals.Request")
+@Label("Numerals Request")
+@Category("Numerals")
+@Description("Request handled by the numerals servlet.")
+@Threshold("10 ms")
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Mode")
+    @Description("Request mode (single, range, numeral, extended or batch).")
+    private String mode;
+
+    @Label("Parameters")
+    private String parameters;
+
+    @Label("Status")
+    private int status;
+
+    @Label("Response Bytes")
+    @Description("Bytes written by the servlet (before compression).")
+    @DataAmount
+    private long responseBytes;
+
+    /**
+     * @param method HTTP method.
+     */
+    public void setMethod(final String method) {
+        this.method = method;
+    }
+
+    /**
+     * @param mode Request mode (single, range, numeral, extended or batch).
+     */
+    public void setMode(final String mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * @param parameters Query string.
+     */
+    public void setParameters(final String parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * @param status Response status.
+     */
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    /**
+     * @param responseBytes Bytes written by the servlet (before compression).
+     */
+    public void setResponseBytes(final long responseBytes) {
+        this.responseBytes = responseBytes;
+    }
+
+}
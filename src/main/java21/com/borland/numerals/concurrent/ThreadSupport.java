@@ -0,0 +1,83 @@
+package com.borland.numerals.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the threads used by the application.
+ * 
+ * This is the Java 21 version (multi-release JAR), which uses virtual threads
+ * when {@link #VIRTUAL_THREADS_PROPERTY} is set to <code>true</code>, and
+ * platform threads otherwise.
+ * 
+ * @author chrismborland
+ */
+public final class ThreadSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadSupport.class);
+
+    /**
+     * System property to opt in to virtual threads (Java 21+).
+     */
+    public static final String VIRTUAL_THREADS_PROPERTY = "numerals.virtualThreads";
+
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+
+    static {
+        if (VIRTUAL_THREADS) {
+            LOG.info("Using virtual threads.");
+        }
+    }
+
+    private ThreadSupport() {
+
+    }
+
+    /**
+     * Check to see if the application is running on virtual threads.
+     * 
+     * @return <code>true</code>, if using virtual threads. <code>false</code>,
+     *         otherwise.
+     */
+    public static boolean isVirtualThreads() {
+        return VIRTUAL_THREADS;
+    }
+
+    /**
+     * Creates a thread factory for application work. Threads are named
+     * <code>namePrefix</code> followed by a counter, and never hold up JVM
+     * shutdown (virtual threads are always daemon threads).
+     * 
+     * @param namePrefix Thread name prefix.
+     * @return Thread factory.
+     */
+    public static ThreadFactory newThreadFactory(final String namePrefix) {
+        if (VIRTUAL_THREADS) {
+            return Thread.ofVirtual().name(namePrefix, 1).factory();
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor which starts a new thread for each task (a virtual
+     * thread, when using virtual threads). Virtual threads are cheap to create,
+     * so they are never pooled.
+     * 
+     * @param namePrefix Thread name prefix.
+     * @return Executor.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(final String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(newThreadFactory(namePrefix));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.borland.numerals;
+
+import static org.junit.Assert.assertEquals;
+
+import com.borland.numerals.servlet.NumeralServlet;
+
+import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for WarmUp.
+ * 
+ * @author chrismborland
+ */
+public class WarmUpTest {
+
+    private Server server;
+    private LocalConnector connector;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new Server();
+        connector = new LocalConnector(server);
+        server.addConnector(connector);
+        ServletContextHandler servletContextHandler = new ServletContextHandler();
+        servletContextHandler.addServlet(NumeralServlet.class, NumeralServlet.SERVLET_PATH).setAsyncSupported(true);
+        server.setHandler(servletContextHandler);
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.stop();
+    }
+
+    /**
+     * Every warm-up request succeeds. Rounds before compilation is checked
+     * always run.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void warmUp() throws Exception {
+        WarmUp warmUp = new WarmUp(connector, 2, 80);
+        assertEquals(2, warmUp.run());
+        assertEquals(0, warmUp.getFailures());
+    }
+
+    /**
+     * Zero rounds skips warm-up.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void skipped() throws Exception {
+        assertEquals(0, new WarmUp(connector, 0, 80).run());
+    }
+
+}
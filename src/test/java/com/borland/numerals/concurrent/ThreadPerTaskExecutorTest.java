@@ -0,0 +1,110 @@
+package com.borland.numerals.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for ThreadPerTaskExecutor.
+ *
+ * @author chrismborland
+ */
+public class ThreadPerTaskExecutorTest {
+
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPerTaskExecutor executor;
+
+    @Before
+    public void init() {
+        // one running task & one waiting.
+        executor = new ThreadPerTaskExecutor(Executors.newCachedThreadPool(), 1, 1, rejected::incrementAndGet);
+    }
+
+    @After
+    public void teardown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Only the max concurrency runs at a time, the queue fills up, then tasks
+     * are rejected (notifying the listener first).
+     *
+     * @throws Exception
+     */
+    @Test
+    public void saturated() throws Exception {
+        // either task may take the permit first.
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        Runnable task = () -> {
+            running.incrementAndGet();
+            started.countDown();
+            awaitRelease();
+        };
+        executor.execute(task);
+        executor.execute(task);
+        started.await();
+        assertEquals(1, running.get());
+        assertEquals(1, executor.getActiveCount());
+        assertEquals(1, executor.getQueueSize());
+        assertEquals(0, executor.getRemainingCapacity());
+        try {
+            executor.execute(this::awaitRelease);
+            fail("Expected rejection.");
+        } catch (RejectedExecutionException ree) {
+            assertEquals(1, rejected.get());
+        }
+    }
+
+    /**
+     * Waiting tasks run once a permit is released, and capacity is returned.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void drained() throws Exception {
+        CountDownLatch done = new CountDownLatch(2);
+        executor.execute(() -> {
+            awaitRelease();
+            done.countDown();
+        });
+        executor.execute(done::countDown);
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getCompletedTaskCount());
+        assertEquals(0, executor.getQueueSize());
+        assertEquals(1, executor.getRemainingCapacity());
+    }
+
+    /**
+     * Tasks are rejected once shut down.
+     */
+    @Test(expected = RejectedExecutionException.class)
+    public void shutdown() {
+        executor.shutdown();
+        executor.execute(this::awaitRelease);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
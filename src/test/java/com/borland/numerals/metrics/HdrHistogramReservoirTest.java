@@ -0,0 +1,97 @@
+package com.borland.numerals.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Snapshot;
+
+import org.junit.Test;
+
+/**
+ * Test class for HdrHistogramReservoir.
+ *
+ * @author chrismborland
+ */
+public class HdrHistogramReservoirTest {
+
+    private final ManualClock clock = new ManualClock();
+    private final HdrHistogramReservoir reservoir = new HdrHistogramReservoir(3, 60L, TimeUnit.SECONDS, clock);
+
+    /**
+     * Values are only seen once the interval has passed, and each snapshot only
+     * holds its own interval's values.
+     */
+    @Test
+    public void interval() {
+        reservoir.update(5L);
+        assertEquals(0, reservoir.getSnapshot().size());
+
+        clock.advance(60L);
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(1, snapshot.size());
+        assertEquals(5L, snapshot.getMax());
+
+        // same snapshot until the next interval.
+        reservoir.update(7L);
+        assertSame(snapshot, reservoir.getSnapshot());
+
+        clock.advance(60L);
+        snapshot = reservoir.getSnapshot();
+        assertEquals(1, snapshot.size());
+        assertArrayEquals(new long[] { 7L }, snapshot.getValues());
+    }
+
+    /**
+     * Every value is recorded, so tail percentiles are exact (within the
+     * significant digits).
+     */
+    @Test
+    public void percentiles() {
+        for (long value = 1L; value <= 10000L; value++) {
+            reservoir.update(value);
+        }
+        // one far outlier.
+        reservoir.update(TimeUnit.SECONDS.toNanos(30L));
+        clock.advance(60L);
+
+        Snapshot snapshot = reservoir.getSnapshot();
+        assertEquals(10001, snapshot.size());
+        assertEquals(1L, snapshot.getMin());
+        assertEquals(5000.0, snapshot.getMedian(), 5.0);
+        assertEquals(9990.0, snapshot.get999thPercentile(), 10.0);
+        assertEquals(TimeUnit.SECONDS.toNanos(30L), snapshot.getMax(), TimeUnit.SECONDS.toNanos(30L) / 1000.0);
+        assertTrue(snapshot.getStdDev() > 0.0);
+    }
+
+    /**
+     * Negative values are recorded as zero.
+     */
+    @Test
+    public void negative() {
+        reservoir.update(-1L);
+        clock.advance(60L);
+        assertEquals(0L, reservoir.getSnapshot().getMax());
+        assertEquals(1, reservoir.size());
+    }
+
+    private static class ManualClock extends Clock {
+
+        private long tick;
+
+        void advance(final long seconds) {
+            tick += TimeUnit.SECONDS.toNanos(seconds);
+        }
+
+        @Override
+        public long getTick() {
+            return tick;
+        }
+
+    }
+
+}
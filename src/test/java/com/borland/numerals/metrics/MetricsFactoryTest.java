@@ -0,0 +1,94 @@
+package com.borland.numerals.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Test class for MetricsFactory.
+ *
+ * @author chrismborland
+ */
+public class MetricsFactoryTest {
+
+    @After
+    public void teardown() {
+        System.clearProperty(MetricsFactory.RESERVOIR_PROPERTY);
+        System.clearProperty(MetricsFactory.RESERVOIR_PROPERTY + ".test.timer");
+    }
+
+    /**
+     * Exponentially decaying reservoir by default.
+     */
+    @Test
+    public void defaultReservoir() {
+        assertTrue(MetricsFactory.reservoir("test.timer") instanceof ExponentiallyDecayingReservoir);
+    }
+
+    /**
+     * Reservoir configured for all metrics, overridden per metric.
+     */
+    @Test
+    public void configuredReservoir() {
+        System.setProperty(MetricsFactory.RESERVOIR_PROPERTY, MetricsFactory.HDR_RESERVOIR);
+        assertTrue(MetricsFactory.reservoir("test.histogram") instanceof HdrHistogramReservoir);
+
+        System.setProperty(MetricsFactory.RESERVOIR_PROPERTY + ".test.timer", MetricsFactory.EXPONENTIAL_RESERVOIR);
+        assertTrue(MetricsFactory.reservoir("test.timer") instanceof ExponentiallyDecayingReservoir);
+    }
+
+    /**
+     * Unknown reservoirs fall back to the default.
+     */
+    @Test
+    public void unknownReservoir() {
+        System.setProperty(MetricsFactory.RESERVOIR_PROPERTY, "unknown");
+        assertTrue(MetricsFactory.reservoir("test.timer") instanceof ExponentiallyDecayingReservoir);
+    }
+
+    /**
+     * Metrics are created once, then reused.
+     */
+    @Test
+    public void registered() {
+        MetricRegistry registry = new MetricRegistry();
+        Timer timer = MetricsFactory.timer(registry, "test.timer");
+        assertSame(timer, MetricsFactory.timer(registry, "test.timer"));
+        assertSame(registry.histogram("test.histogram"), MetricsFactory.histogram(registry, "test.histogram"));
+    }
+
+    /**
+     * Metrics of a registry from the factory (including those created directly
+     * through the registry) are reset, unless filtered out.
+     */
+    @Test
+    public void reset() {
+        MetricRegistry registry = MetricsFactory.newRegistry();
+        registry.timer("test.timer").update(1, TimeUnit.MILLISECONDS);
+        registry.histogram("test.histogram").update(1);
+        registry.meter("test.meter").mark();
+        MetricsFactory.timer(registry, "test.kept").update(1, TimeUnit.MILLISECONDS);
+
+        MetricsFactory.reset(registry, (name, metric) -> !name.equals("test.kept"));
+
+        assertEquals(0, registry.timer("test.timer").getCount());
+        assertEquals(0, registry.timer("test.timer").getSnapshot().size());
+        assertEquals(0, registry.histogram("test.histogram").getCount());
+        assertEquals(0, registry.meter("test.meter").getCount());
+        assertEquals(1, registry.timer("test.kept").getCount());
+
+        // recording continues after a reset.
+        registry.timer("test.timer").update(1, TimeUnit.MILLISECONDS);
+        assertEquals(1, registry.timer("test.timer").getCount());
+    }
+
+}
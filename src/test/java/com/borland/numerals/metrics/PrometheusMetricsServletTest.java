@@ -0,0 +1,143 @@
+package com.borland.numerals.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.HealthCheckRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test class for PrometheusMetricsServlet.
+ *
+ * @author chrismborland
+ */
+public class PrometheusMetricsServletTest extends Mockito {
+
+    private final MetricRegistry registry = new MetricRegistry();
+    private final HealthCheckRegistry healthChecks = new HealthCheckRegistry();
+
+    @After
+    public void teardown() {
+        healthChecks.shutdown();
+    }
+
+    /**
+     * Every metric type is rendered in the text format.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void metrics() throws Exception {
+        registry.counter("numerals.activeRequests").inc(2);
+        registry.register("numerals.pool.utilization", (Gauge<Double>) () -> 0.5);
+        registry.register("numerals.pool.lowOnThreads", (Gauge<Boolean>) () -> true);
+        registry.register("numerals.pool.name", (Gauge<String>) () -> "pool");
+        registry.meter("numerals.responseCodes.ok").mark(3);
+        registry.histogram("numerals.successResponseSizes").update(100);
+        registry.timer("numerals.requests").update(2, TimeUnit.MILLISECONDS);
+
+        List<String> lines = get();
+
+        assertTrue(lines.contains("# TYPE numerals_activeRequests gauge"));
+        assertTrue(lines.contains("numerals_activeRequests 2"));
+        assertTrue(lines.contains("numerals_pool_utilization 0.5"));
+        assertTrue(lines.contains("numerals_pool_lowOnThreads 1"));
+        // non-numeric gauges are skipped.
+        assertTrue(lines.stream().noneMatch(line -> line.contains("numerals_pool_name")));
+        assertTrue(lines.contains("# TYPE numerals_responseCodes_ok_total counter"));
+        assertTrue(lines.contains("numerals_responseCodes_ok_total 3"));
+        assertTrue(lines.contains("# TYPE numerals_successResponseSizes summary"));
+        assertTrue(lines.contains("numerals_successResponseSizes{quantile=\"0.99\"} 100"));
+        assertTrue(lines.contains("numerals_successResponseSizes_sum 100"));
+        assertTrue(lines.contains("numerals_successResponseSizes_count 1"));
+        assertTrue(lines.contains("# TYPE numerals_requests_seconds summary"));
+        assertTrue(lines.contains("numerals_requests_seconds{quantile=\"0.5\"} 0.002"));
+        assertTrue(lines.contains("numerals_requests_seconds_sum 0.002"));
+        assertTrue(lines.contains("numerals_requests_seconds_count 1"));
+    }
+
+    /**
+     * Metrics whose sanitized names collide with one already written are
+     * skipped, so each name is only written once.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void collisions() throws Exception {
+        registry.counter("numerals.a.b").inc(1);
+        registry.counter("numerals.a_b").inc(2);
+        registry.histogram("numerals.c");
+        registry.counter("numerals.c_count").inc(3);
+
+        List<String> lines = get();
+
+        assertEquals(1, lines.stream().filter(line -> line.equals("# TYPE numerals_a_b gauge")).count());
+        assertEquals(1, lines.stream().filter(line -> line.startsWith("numerals_a_b ")).count());
+        // the gauge claims the summary's _count first.
+        assertTrue(lines.contains("numerals_c_count 3"));
+        assertTrue(lines.stream().noneMatch(line -> line.equals("# TYPE numerals_c summary")));
+    }
+
+    /**
+     * Health checks are rendered as a gauge per check.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void healthChecks() throws Exception {
+        healthChecks.register("healthy", new HealthCheck() {
+            @Override
+            protected Result check() {
+                return Result.healthy();
+            }
+        });
+        healthChecks.register("unhealthy", new HealthCheck() {
+            @Override
+            protected Result check() {
+                return Result.unhealthy("down");
+            }
+        });
+
+        List<String> lines = get();
+
+        assertTrue(lines.contains("# TYPE numerals_healthCheck_healthy gauge"));
+        assertTrue(lines.contains("numerals_healthCheck_healthy{check=\"healthy\"} 1"));
+        assertTrue(lines.contains("numerals_healthCheck_healthy{check=\"unhealthy\"} 0"));
+    }
+
+    /**
+     * Names are sanitized to valid metric names.
+     */
+    @Test
+    public void sanitize() {
+        assertEquals("numerals_responseCodes_ok", PrometheusMetricsServlet.sanitize("numerals.responseCodes.ok"));
+        assertEquals("__a_b", PrometheusMetricsServlet.sanitize("1-a b"));
+    }
+
+    private List<String> get() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+        new PrometheusMetricsServlet(registry, healthChecks).doGet(request, response);
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).setContentType(PrometheusMetricsServlet.CONTENT_TYPE);
+        return Arrays.asList(body.toString().split("\n"));
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.borland.numerals.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.borland.numerals.concurrent.BoundedThreadPoolExecutor;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for ThreadPoolExecutorMetrics & MeteredRejectedExecutionHandler.
+ * 
+ * @author chrismborland
+ */
+public class ThreadPoolExecutorMetricsTest {
+
+    private final MetricRegistry registry = new MetricRegistry();
+    private final Meter rejected = registry.meter("executor.rejected");
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedThreadPoolExecutor executor;
+
+    @Before
+    public void init() {
+        // one thread & one queue slot.
+        executor = new BoundedThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1),
+                Executors.defaultThreadFactory(), new MeteredRejectedExecutionHandler(rejected, new ThreadPoolExecutor.AbortPolicy()));
+        registry.registerAll("executor", new ThreadPoolExecutorMetrics(executor));
+    }
+
+    @After
+    public void teardown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gauges follow a saturated executor, and rejections are counted before
+     * being thrown.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void saturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        executor.execute(this::awaitRelease);
+        started.await();
+        assertEquals(1, gauge("executor.activeThreads"));
+        assertEquals(1, gauge("executor.queueDepth"));
+        assertEquals(0, gauge("executor.queueRemaining"));
+        assertEquals(1.0, (Double) registry.getGauges().get("executor.utilization").getValue(), 0.0);
+        try {
+            executor.execute(this::awaitRelease);
+            fail("Expected rejection.");
+        } catch (RejectedExecutionException ree) {
+            assertEquals(1, rejected.getCount());
+        }
+    }
+
+    private Object gauge(final String name) {
+        Gauge<?> gauge = registry.getGauges().get(name);
+        return gauge.getValue();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
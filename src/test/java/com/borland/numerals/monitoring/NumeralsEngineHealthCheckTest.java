@@ -0,0 +1,116 @@
+package com.borland.numerals.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.borland.numerals.App;
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralService;
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+import com.borland.numerals.servlet.NumeralServlet;
+import com.codahale.metrics.health.AsyncHealthCheckDecorator;
+import com.codahale.metrics.health.HealthCheck.Result;
+import com.codahale.metrics.health.HealthCheckRegistry;
+
+import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Server;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test class for NumeralsEngineHealthCheck.
+ * 
+ * @author chrismborland
+ */
+public class NumeralsEngineHealthCheckTest extends Mockito {
+
+    private final NumeralService numeralService = new PrecomputedNumeralServiceImpl();
+    private Server server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new Server();
+        server.addConnector(new LocalConnector(server));
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.stop();
+    }
+
+    /**
+     * Healthy with a running server, with executor details.
+     */
+    @Test
+    public void healthy() {
+        Result result = new NumeralsEngineHealthCheck(server, numeralService).execute();
+        assertTrue(result.getMessage(), result.isHealthy());
+        assertTrue(result.getDetails().containsKey("queueRemaining"));
+    }
+
+    /**
+     * Checks the servlet's service without its conversion timers.
+     */
+    @Test
+    public void healthyUntimed() {
+        long singleCount = App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount();
+        long rangeCount = App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions").getCount();
+        Result result = new NumeralsEngineHealthCheck(server, new NumeralServlet().getNumeralService()).execute();
+        assertTrue(result.getMessage(), result.isHealthy());
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), singleCount);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions").getCount(), rangeCount);
+    }
+
+    /**
+     * Unhealthy once the server is stopped.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void unhealthyStopped() throws Exception {
+        server.stop();
+        Result result = new NumeralsEngineHealthCheck(server, numeralService).execute();
+        assertFalse(result.isHealthy());
+    }
+
+    /**
+     * Unhealthy when the live service converts incorrectly.
+     */
+    @Test
+    public void unhealthyConversion() {
+        NumeralService broken = mock(NumeralService.class);
+        when(broken.convertToNumeral(anyInt())).thenReturn(new NumeralPair(1, "II"));
+        Result result = new NumeralsEngineHealthCheck(server, broken).execute();
+        assertFalse(result.isHealthy());
+    }
+
+    /**
+     * Unhealthy when the live service converts a range incorrectly.
+     */
+    @Test
+    public void unhealthyRange() {
+        NumeralService broken = spy(numeralService);
+        when(broken.convertToNumeral(1, 10)).thenReturn(numeralService.convertToNumeral(2, 11));
+        Result result = new NumeralsEngineHealthCheck(server, broken).execute();
+        assertFalse(result.isHealthy());
+    }
+
+    /**
+     * Registered checks run on a schedule & are read from the cached result.
+     */
+    @Test
+    public void scheduled() {
+        HealthCheckRegistry registry = new HealthCheckRegistry();
+        try {
+            registry.register("numerals-engine", new NumeralsEngineHealthCheck(server, numeralService));
+            assertEquals(AsyncHealthCheckDecorator.class, registry.getHealthCheck("numerals-engine").getClass());
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.borland.numerals.monitoring;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test class for ReadinessServlet.
+ * 
+ * @author chrismborland
+ */
+public class ReadinessServletTest extends Mockito {
+
+    @After
+    public void reset() {
+        ReadinessServlet.setReady(false);
+    }
+
+    /**
+     * Not ready until flipped.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void notReady() throws Exception {
+        HttpServletResponse response = get(false);
+        verify(response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Ready once flipped.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void ready() throws Exception {
+        HttpServletResponse response = get(true);
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).setHeader("Cache-Control", "no-store");
+    }
+
+    private HttpServletResponse get(final boolean ready) throws Exception {
+        ReadinessServlet.setReady(ready);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+        new ReadinessServlet().doGet(request, response);
+        return response;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.borland.numerals.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.borland.numerals.service.impl.VinculumNumeralServiceImpl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for extended numeral service. Currently only tests the vinculum
+ * service.
+ * 
+ * @author chrismborland
+ */
+public class ExtendedNumeralServiceTest {
+
+    private ExtendedNumeralService numeralService;
+
+    @Before
+    public void init() {
+        numeralService = new VinculumNumeralServiceImpl();
+    }
+
+    /**
+     * Verify eligibility boundaries.
+     */
+    @Test
+    public void isEligible() {
+        assertFalse(numeralService.isEligible(0));
+        assertTrue(numeralService.isEligible(1));
+        assertTrue(numeralService.isEligible(Long.MAX_VALUE));
+        assertFalse(numeralService.isRangeEligible(5000, 4000));
+        assertTrue(numeralService.isRangeEligible(1, 5000000));
+    }
+
+    /**
+     * Verify numbers within the standard form are unchanged.
+     */
+    @Test
+    public void convertStandardForm() {
+        assertEquals("MMMCMXCIX", numeralService.convertToNumeral(3999));
+        assertEquals("MMDCCLXXXIV", numeralService.convertToNumeral(2784));
+    }
+
+    /**
+     * Verify thousands are written with a vinculum.
+     */
+    @Test
+    public void convertVinculum() {
+        assertEquals("I\u0305V\u0305", numeralService.convertToNumeral(4000));
+        assertEquals("V\u0305CCLXV", numeralService.convertToNumeral(5265));
+        assertEquals("M\u0305", numeralService.convertToNumeral(1000000));
+        assertEquals("M\u0305M\u0305M\u0305C\u0305M\u0305X\u0305C\u0305I\u0305X\u0305CMXCIX",
+                numeralService.convertToNumeral(3999999));
+    }
+
+    /**
+     * Verify thousands of thousands are written with stacked vincula.
+     */
+    @Test
+    public void convertStackedVinculum() {
+        assertEquals("I\u0305\u0305V\u0305\u0305I", numeralService.convertToNumeral(4000001L));
+    }
+
+    /**
+     * Verify range conversion streams every number in order.
+     */
+    @Test
+    public void convertRange() throws IOException {
+        final List<String> numerals = new ArrayList<String>();
+        final List<Long> numbers = new ArrayList<Long>();
+        numeralService.convertToNumerals(3998, 4001, (number, numeral) -> {
+            numbers.add(number);
+            numerals.add(numeral.toString());
+        });
+        assertEquals(4, numerals.size());
+        assertEquals(Long.valueOf(3998), numbers.get(0));
+        assertEquals("MMMCMXCVIII", numerals.get(0));
+        assertEquals("MMMCMXCIX", numerals.get(1));
+        assertEquals("I\u0305V\u0305", numerals.get(2));
+        assertEquals("I\u0305V\u0305I", numerals.get(3));
+    }
+
+    /**
+     * Verify range conversion at the end of the long range terminates.
+     */
+    @Test
+    public void convertRangeMaxValue() throws IOException {
+        final List<Long> numbers = new ArrayList<Long>();
+        numeralService.convertToNumerals(Long.MAX_VALUE - 1, Long.MAX_VALUE, (number, numeral) -> {
+            numbers.add(number);
+        });
+        assertEquals(2, numbers.size());
+    }
+
+    /**
+     * Verify consumer failures stop the conversion.
+     */
+    @Test(expected = IOException.class)
+    public void convertRangeConsumerFails() throws IOException {
+        numeralService.convertToNumerals(1, 1000000, (number, numeral) -> {
+            throw new IOException("closed");
+        });
+    }
+
+}
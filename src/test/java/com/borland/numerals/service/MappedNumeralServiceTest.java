@@ -0,0 +1,139 @@
+package com.borland.numerals.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.borland.numerals.service.impl.MappedNumeralServiceImpl;
+import com.borland.numerals.service.impl.NumeralTableFile;
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test class for the memory-mapped numeral service.
+ * 
+ * @author chrismborland
+ */
+public class MappedNumeralServiceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path tablePath;
+
+    private NumeralService numeralService;
+
+    @Before
+    public void init() throws IOException {
+        tablePath = folder.getRoot().toPath().resolve("numerals.table");
+        numeralService = MappedNumeralServiceImpl.open(tablePath);
+    }
+
+    /**
+     * Table file is written on first open.
+     */
+    @Test
+    public void tableWrittenOnOpen() {
+        assertTrue(Files.exists(tablePath));
+    }
+
+    /**
+     * Verify eligibility boundaries come from the table.
+     */
+    @Test
+    public void isEligible() {
+        assertFalse(numeralService.isEligible(0));
+        assertTrue(numeralService.isEligible(1));
+        assertTrue(numeralService.isEligible(3999));
+        assertFalse(numeralService.isEligible(4000));
+        assertFalse(numeralService.isRangeEligible(20, 12));
+        assertTrue(numeralService.isRangeEligible(1, 3999));
+    }
+
+    /**
+     * Verify every number matches the precomputed service, for single, range &
+     * packed range conversions.
+     */
+    @Test
+    public void convertAllMatchesPrecomputed() {
+        NumeralService precomputed = new PrecomputedNumeralServiceImpl();
+        List<NumeralPair> expected = new ArrayList<NumeralPair>(precomputed.convertToNumeral(1, 3999));
+        List<NumeralPair> actual = new ArrayList<NumeralPair>(numeralService.convertToNumeral(1, 3999));
+        assertEquals(expected.size(), actual.size());
+        NumeralRange range = numeralService.convertToNumeralRange(1, 3999);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getNumber(), actual.get(i).getNumber());
+            assertEquals(expected.get(i).getNumeral(), actual.get(i).getNumeral());
+            assertEquals(expected.get(i).getNumeral(), numeralService.convertToNumeral(i + 1).getNumeral());
+            assertEquals(expected.get(i).getNumeral(), range.getNumeral(i));
+        }
+    }
+
+    /**
+     * Packed ranges not starting at the beginning of the table.
+     */
+    @Test
+    public void convertRangeMiddle() {
+        NumeralRange range = numeralService.convertToNumeralRange(3998, 3999);
+        assertEquals(2, range.size());
+        assertEquals("MMMCMXCVIII", range.getNumeral(0));
+        assertEquals("MMMCMXCIX", range.getNumeral(1));
+    }
+
+    /**
+     * Batch conversions keep request order.
+     */
+    @Test
+    public void convertBatch() {
+        List<NumeralPair> pairs = numeralService.convertToNumerals(new int[] { 4, 1, 4 });
+        assertArrayEquals(new String[] { "IV", "I", "IV" }, new String[] { pairs.get(0).getNumeral(),
+                pairs.get(1).getNumeral(), pairs.get(2).getNumeral() });
+    }
+
+    /**
+     * Parse numerals back to numbers.
+     */
+    @Test
+    public void parseNumeral() {
+        assertEquals(new Integer(1994), numeralService.parseNumeral("MCMXCIV").getNumber());
+        assertTrue(numeralService.isValidNumeral("MMMCMXCIX"));
+        assertFalse(numeralService.isValidNumeral("IIII"));
+        assertNull(numeralService.parseNumeral("IIII"));
+    }
+
+    /**
+     * A corrupted table is rejected when mapped, and rewritten on open.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void corruptTableRejected() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(tablePath.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            file.write('Z');
+        }
+        try {
+            NumeralTableFile.map(tablePath);
+            fail("Corrupt table mapped.");
+        } catch (IOException expected) {
+            // expected.
+        }
+        NumeralService reopened = MappedNumeralServiceImpl.open(tablePath);
+        assertEquals("MMMCMXCIX", reopened.convertToNumeral(3999).getNumeral());
+    }
+
+}
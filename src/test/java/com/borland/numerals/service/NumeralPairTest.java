@@ -20,4 +20,25 @@ public class NumeralPairTest {
         assertEquals("1: I", pair.toString());
     }
 
+    /**
+     * Verify primitive accessors.
+     */
+    @Test
+    public void primitiveAccessors() {
+        NumeralPair pair = new NumeralPair(2784, "MMDCCLXXXIV");
+        assertEquals(2784, pair.numberValue());
+        assertEquals(11, pair.numeralLength());
+        assertEquals(0, new NumeralPair().numeralLength());
+    }
+
+    /**
+     * Verify pairs are ordered by number.
+     */
+    @Test
+    public void compareToTest() {
+        assertEquals(-1, Integer.signum(new NumeralPair(4, "IV").compareTo(new NumeralPair(5, "V"))));
+        assertEquals(0, new NumeralPair(5, "V").compareTo(new NumeralPair(5, "V")));
+        assertEquals(1, Integer.signum(new NumeralPair(10, "X").compareTo(new NumeralPair(9, "IX"))));
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.borland.numerals.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+
+import org.junit.Test;
+
+/**
+ * Test class for NumeralRange.
+ * 
+ * @author chrismborland
+ */
+public class NumeralRangeTest {
+
+    /**
+     * Verify range accessors on a precomputed range.
+     */
+    @Test
+    public void accessors() {
+        NumeralRange range = new PrecomputedNumeralServiceImpl().convertToNumeralRange(898, 902);
+        assertEquals(898, range.getLowNumber());
+        assertEquals(902, range.getHighNumber());
+        assertEquals(5, range.size());
+        assertEquals("DCCCXCVIII", range.getNumeral(0));
+        assertEquals("CM", range.getNumeral(2));
+        assertEquals(2, range.getNumeralLength(2));
+        byte[] buffer = new byte[4];
+        assertEquals(3, range.writeNumeral(3, buffer, 1));
+        assertEquals("CMI", new String(buffer, 1, 3, StandardCharsets.US_ASCII));
+        ByteBuffer byteBuffer = ByteBuffer.allocate(8);
+        range.writeNumeral(4, byteBuffer);
+        assertEquals(4, byteBuffer.position());
+    }
+
+    /**
+     * Verify precomputed & executor backed ranges match.
+     */
+    @Test
+    public void enginesMatch() {
+        NumeralRange expected = new StandardFormNumeralServiceImpl().convertToNumeralRange(1, 3999);
+        NumeralRange actual = new PrecomputedNumeralServiceImpl().convertToNumeralRange(1, 3999);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getNumeral(i), actual.getNumeral(i));
+        }
+    }
+
+    /**
+     * Verify visitor walks the numerals in order.
+     */
+    @Test
+    public void forEachNumeral() {
+        final StringBuilder sb = new StringBuilder();
+        new PrecomputedNumeralServiceImpl().convertToNumeralRange(3, 6).forEachNumeral(
+                (number, numerals, offset, length) -> {
+                    sb.append(number).append('=').append(new String(numerals, offset, length,
+                            StandardCharsets.US_ASCII)).append(' ');
+                });
+        assertEquals("3=III 4=IV 5=V 6=VI ", sb.toString());
+    }
+
+    /**
+     * Verify stream produces ordered pairs.
+     */
+    @Test
+    public void stream() {
+        List<NumeralPair> pairs = new PrecomputedNumeralServiceImpl().convertToNumeralRange(1, 5).stream()
+                .collect(Collectors.toList());
+        assertEquals(5, pairs.size());
+        assertEquals("IV", pairs.get(3).getNumeral());
+        assertEquals(5, pairs.get(4).numberValue());
+    }
+
+    /**
+     * Verify spliterator is sized & splits evenly, and parallel streams keep
+     * order.
+     */
+    @Test
+    public void spliterator() {
+        NumeralRange range = new PrecomputedNumeralServiceImpl().convertToNumeralRange(1, 3999);
+        Spliterator<NumeralPair> spliterator = range.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertNull(spliterator.getComparator());
+        Spliterator<NumeralPair> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(1999, prefix.estimateSize());
+        assertEquals(2000, spliterator.estimateSize());
+        List<Integer> numbers = StreamSupport.stream(range.spliterator(), true).map(NumeralPair::getNumber)
+                .collect(Collectors.toList());
+        assertEquals(3999, numbers.size());
+        for (int i = 0; i < numbers.size(); i++) {
+            assertEquals(i + 1, numbers.get(i).intValue());
+        }
+    }
+
+}
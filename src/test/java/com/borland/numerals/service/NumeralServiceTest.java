@@ -3,12 +3,17 @@ package com.borland.numerals.service;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
+import com.borland.numerals.App;
+import com.borland.numerals.service.impl.StandardFormNumeralCallable;
 import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+import com.borland.numerals.service.impl.TimedNumeralServiceImpl;
 
 import org.junit.After;
 import org.junit.Before;
@@ -121,6 +126,102 @@ public class NumeralServiceTest {
         assertEquals(pairList.get(4).getNumeral(), "V");
     }
 
+    /**
+     * Verify the packed range, written straight into place by the range blocks,
+     * matches every single conversion.
+     */
+    @Test
+    public void convertPackedRange() {
+        NumeralRange range = numeralService.convertToNumeralRange(1, 3999);
+        assertEquals(range.size(), 3999);
+        assertEquals(range.getLowNumber(), 1);
+        for (int i = 0; i < range.size(); i++) {
+            assertEquals(range.getNumeral(i), StandardFormNumeralCallable.toNumeral(i + 1));
+        }
+    }
+
+    /**
+     * Verify a range spanning many blocks is complete & in order, the range pool
+     * metrics are recorded, and the block tuning is exposed as gauges.
+     */
+    @Test
+    public void convertRangeManyBlocks() {
+        long queueWaitCount = App.metrics.timer(App.RANGE_POOL_METRICS + ".queueWait").getCount();
+        long executionCount = App.metrics.timer(App.RANGE_POOL_METRICS + ".execution").getCount();
+        Set<NumeralPair> pairs = numeralService.convertToNumeral(1, 3999);
+        assertEquals(pairs.size(), 3999);
+        int expected = 1;
+        for (NumeralPair pair : pairs) {
+            assertEquals(pair.numberValue(), expected++);
+        }
+        assertEquals(App.metrics.getGauges().get(App.RANGE_POOL_METRICS + ".blockSize").getValue(),
+                App.DEFAULT_RANGE_BLOCK_SIZE);
+        assertEquals(App.metrics.getGauges().get(App.RANGE_POOL_METRICS + ".parallelism").getValue(),
+                App.rangePool.getParallelism());
+        assertEquals(App.metrics.timer(App.RANGE_POOL_METRICS + ".queueWait").getCount(), queueWaitCount + 1);
+        assertEquals(App.metrics.timer(App.RANGE_POOL_METRICS + ".execution").getCount(), executionCount + 1);
+    }
+
+    /**
+     * Verify batch conversion keeps request order & duplicates.
+     */
+    @Test
+    public void convertBatch() {
+        List<NumeralPair> pairs = numeralService.convertToNumerals(new int[] { 900, 4, 3888, 4 });
+        assertEquals(pairs.size(), 4);
+        assertEquals(pairs.get(0).getNumeral(), "CM");
+        assertEquals(pairs.get(1).getNumeral(), "IV");
+        assertEquals(pairs.get(2).getNumeral(), "MMMDCCCLXXXVIII");
+        assertEquals(pairs.get(3).getNumeral(), "IV");
+    }
+
+    /**
+     * Verify numeral conversion back to a number.
+     */
+    @Test
+    public void parseNumeral() {
+        assertEquals(numeralService.parseNumeral("MMDCCLXXXIV").getNumber(), new Integer(2784));
+        assertEquals(numeralService.parseNumeral("MMMDCCCLXXXVIII").getNumber(), new Integer(3888));
+        assertEquals(numeralService.parseNumeral("CM").getNumber(), new Integer(900));
+        assertEquals(numeralService.parseNumeral("I").getNumber(), new Integer(1));
+    }
+
+    /**
+     * Verify valid numerals are accepted.
+     */
+    @Test
+    public void isValidNumeralValid() {
+        assertTrue(numeralService.isValidNumeral("MMMCMXCIX"));
+        assertTrue(numeralService.isValidNumeral("XLIV"));
+    }
+
+    /**
+     * Verify non-canonical & malformed numerals are rejected.
+     */
+    @Test
+    public void isValidNumeralInvalid() {
+        assertFalse(numeralService.isValidNumeral(null));
+        assertFalse(numeralService.isValidNumeral(""));
+        assertFalse(numeralService.isValidNumeral("IIII"));
+        assertFalse(numeralService.isValidNumeral("IC"));
+        assertFalse(numeralService.isValidNumeral("VX"));
+        assertFalse(numeralService.isValidNumeral("MMMM"));
+        assertFalse(numeralService.isValidNumeral("XM"));
+        assertFalse(numeralService.isValidNumeral("CMCM"));
+        assertFalse(numeralService.isValidNumeral("IXI"));
+        assertFalse(numeralService.isValidNumeral("iv"));
+        assertFalse(numeralService.isValidNumeral("X1"));
+        assertFalse(numeralService.isValidNumeral("MMMDCCCLXXXVIIII"));
+    }
+
+    /**
+     * Verify invalid numeral conversion returns null.
+     */
+    @Test
+    public void parseNumeralInvalid() {
+        assertEquals(numeralService.parseNumeral("IIII"), null);
+    }
+
     /**
      * Verify error during single conversion returns null.
      */
@@ -131,6 +232,16 @@ public class NumeralServiceTest {
         assertEquals(pair, null);
     }
 
+    /**
+     * Verify error during batch conversion returns null.
+     */
+    @Test
+    public void convertBatchInterrupted() {
+        Thread.currentThread().interrupt();
+        List<NumeralPair> pairs = numeralService.convertToNumerals(new int[] { 1, 2, 3 });
+        assertEquals(pairs, null);
+    }
+
     /**
      * Verify error during range conversion returns null.
      */
@@ -141,4 +252,23 @@ public class NumeralServiceTest {
         assertEquals(pairs, null);
     }
 
+    /**
+     * Verify a batch rejected for capacity still stops its (servlet's) timer.
+     */
+    @Test
+    public void convertBatchRejectedTimed() {
+        long batchCount = App.metrics.timer(App.METRIX_PREFIX + ".batchConversions").getCount();
+        // more distinct numbers than the executor can queue.
+        int[] numbers = new int[App.DEFAULT_EXECUTOR_QUEUE_SIZE + 1];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = i + 1;
+        }
+        try {
+            new TimedNumeralServiceImpl(numeralService).convertToNumerals(numbers);
+            fail("Expected rejection.");
+        } catch (RejectedExecutionException ree) {
+            assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".batchConversions").getCount(), batchCount + 1);
+        }
+    }
+
 }
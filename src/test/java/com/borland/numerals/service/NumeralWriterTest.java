@@ -0,0 +1,96 @@
+package com.borland.numerals.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.borland.numerals.service.impl.StandardFormNumeralCallable;
+import com.borland.numerals.service.impl.StandardFormNumeralWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for numeral writer. Currently only tests the standard form
+ * writer.
+ * 
+ * @author chrismborland
+ */
+public class NumeralWriterTest {
+
+    private NumeralWriter numeralWriter;
+
+    @Before
+    public void init() {
+        numeralWriter = new StandardFormNumeralWriter();
+    }
+
+    /**
+     * Verify eligibility boundaries.
+     */
+    @Test
+    public void isEligible() {
+        assertFalse(numeralWriter.isEligible(0));
+        assertTrue(numeralWriter.isEligible(1));
+        assertTrue(numeralWriter.isEligible(3999));
+        assertFalse(numeralWriter.isEligible(4000));
+    }
+
+    /**
+     * Verify the longest numeral (3888) fits the max length.
+     */
+    @Test
+    public void maxLength() {
+        assertEquals(15, numeralWriter.getMaxLength());
+        assertEquals(15, numeralWriter.getLength(3888));
+    }
+
+    /**
+     * Verify every number written to a byte array at an offset.
+     */
+    @Test
+    public void writeByteArray() {
+        byte[] buffer = new byte[numeralWriter.getMaxLength() + 2];
+        for (int i = 1; i <= 3999; i++) {
+            int length = numeralWriter.write(i, buffer, 2);
+            assertEquals(numeralWriter.getLength(i), length);
+            assertEquals(StandardFormNumeralCallable.toNumeral(i),
+                    new String(buffer, 2, length, StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Verify numerals are written at the byte buffer position.
+     */
+    @Test
+    public void writeByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        numeralWriter.write(2784, buffer);
+        numeralWriter.write(4, buffer);
+        buffer.flip();
+        assertEquals("MMDCCLXXXIVIV", StandardCharsets.US_ASCII.decode(buffer).toString());
+    }
+
+    /**
+     * Verify overflow when byte buffer is too small.
+     */
+    @Test(expected = BufferOverflowException.class)
+    public void writeByteBufferOverflow() {
+        numeralWriter.write(3888, ByteBuffer.allocate(4));
+    }
+
+    /**
+     * Verify numerals are appended.
+     */
+    @Test
+    public void writeAppendable() throws Exception {
+        StringBuilder sb = new StringBuilder("[");
+        assertEquals(2, numeralWriter.write(900, sb));
+        assertEquals("[CM", sb.toString());
+    }
+
+}
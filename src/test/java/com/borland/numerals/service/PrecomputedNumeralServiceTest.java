@@ -0,0 +1,151 @@
+package com.borland.numerals.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.borland.numerals.App;
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+import com.borland.numerals.service.impl.TimedNumeralServiceImpl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for the precomputed numeral service.
+ * 
+ * @author chrismborland
+ */
+public class PrecomputedNumeralServiceTest {
+
+    private NumeralService numeralService;
+
+    @Before
+    public void init() {
+        numeralService = new PrecomputedNumeralServiceImpl();
+    }
+
+    @After
+    public void teardown() {
+        numeralService = null;
+    }
+
+    /**
+     * Verify eligibility boundaries match the standard form service.
+     */
+    @Test
+    public void isEligible() {
+        assertFalse(numeralService.isEligible(0));
+        assertTrue(numeralService.isEligible(1));
+        assertTrue(numeralService.isEligible(3999));
+        assertFalse(numeralService.isEligible(4000));
+        assertFalse(numeralService.isRangeEligible(20, 12));
+        assertTrue(numeralService.isRangeEligible(1, 3999));
+    }
+
+    /**
+     * Verify every number matches the standard form service.
+     */
+    @Test
+    public void convertAllMatchesStandardForm() {
+        Set<NumeralPair> expected = new StandardFormNumeralServiceImpl().convertToNumeral(1, 3999);
+        List<NumeralPair> actual = new ArrayList<NumeralPair>(numeralService.convertToNumeral(1, 3999));
+        assertEquals(expected.size(), actual.size());
+        int i = 0;
+        for (NumeralPair pair : expected) {
+            assertEquals(pair.getNumber(), actual.get(i).getNumber());
+            assertEquals(pair.getNumeral(), actual.get(i).getNumeral());
+            assertEquals(pair.getNumeral(), numeralService.convertToNumeral(pair.getNumber()).getNumeral());
+            i++;
+        }
+    }
+
+    /**
+     * Verify every numeral converts back to its number.
+     */
+    @Test
+    public void parseAllRoundTrip() {
+        for (int i = 1; i <= 3999; i++) {
+            String numeral = numeralService.convertToNumeral(i).getNumeral();
+            assertTrue(numeralService.isValidNumeral(numeral));
+            assertSame(numeralService.convertToNumeral(i), numeralService.parseNumeral(numeral));
+        }
+    }
+
+    /**
+     * Verify range conversion.
+     */
+    @Test
+    public void convertRange() {
+        Set<NumeralPair> pairs = numeralService.convertToNumeral(898, 902);
+        assertEquals(pairs.size(), 5);
+        List<NumeralPair> pairList = new ArrayList<NumeralPair>(pairs);
+        assertEquals(pairList.get(0).getNumeral(), "DCCCXCVIII");
+        assertEquals(pairList.get(2).getNumeral(), "CM");
+        assertEquals(pairList.get(4).getNumeral(), "CMII");
+    }
+
+    /**
+     * Verify batch conversion keeps request order & shares duplicates.
+     */
+    @Test
+    public void convertBatch() {
+        List<NumeralPair> pairs = numeralService.convertToNumerals(new int[] { 3999, 1, 3999 });
+        assertEquals(pairs.size(), 3);
+        assertEquals(pairs.get(0).getNumeral(), "MMMCMXCIX");
+        assertEquals(pairs.get(1).getNumeral(), "I");
+        assertSame(pairs.get(0), pairs.get(2));
+    }
+
+    /**
+     * Verify pairs are shared between calls.
+     */
+    @Test
+    public void convertSingleShared() {
+        assertSame(numeralService.convertToNumeral(2784), numeralService.convertToNumeral(2784));
+    }
+
+    /**
+     * Verify shared pairs can not be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void convertSingleImmutable() {
+        numeralService.convertToNumeral(1).setNumeral("X");
+    }
+
+    /**
+     * Verify range sets can not be modified.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void convertRangeImmutable() {
+        numeralService.convertToNumeral(1, 5).clear();
+    }
+
+    /**
+     * Verify lookups are not timed, and are timed once served through the timed
+     * service.
+     */
+    @Test
+    public void convertTimedOnlyWhenServed() {
+        long singleCount = App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount();
+        long rangeCount = App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions").getCount();
+        numeralService.convertToNumeral(1994);
+        numeralService.convertToNumeralRange(1, 10);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), singleCount);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions").getCount(), rangeCount);
+
+        NumeralService timed = new TimedNumeralServiceImpl(numeralService);
+        assertSame(timed.convertToNumeral(1994), numeralService.convertToNumeral(1994));
+        timed.convertToNumeralRange(1, 10);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), singleCount + 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions").getCount(), rangeCount + 1);
+    }
+
+}
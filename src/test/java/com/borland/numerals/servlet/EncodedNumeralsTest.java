@@ -0,0 +1,88 @@
+package com.borland.numerals.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.borland.numerals.service.NumeralService;
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.Test;
+
+/**
+ * Test class for EncodedNumerals
+ * 
+ * @author chrismborland
+ */
+public class EncodedNumeralsTest {
+
+    private final EncodedNumerals encodedNumerals = EncodedNumerals.standardForm();
+
+    private final NumeralService numeralService = new PrecomputedNumeralServiceImpl();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Every single pre-encoded pair matches the JSON generated for the pair.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void singleMatchesJson() throws Exception {
+        for (int i = 1; i <= 3999; i++) {
+            assertEquals(mapper.writeValueAsString(numeralService.convertToNumeral(i)),
+                    toString(encodedNumerals.single(i)));
+        }
+    }
+
+    /**
+     * Pre-encoded ranges match the JSON generated for the range, including
+     * the edges of the table.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void rangeMatchesJson() throws Exception {
+        int[][] ranges = { { 1, 1 }, { 1, 2 }, { 4, 9 }, { 3998, 3999 }, { 1, 3999 } };
+        for (int[] range : ranges) {
+            assertEquals(mapper.writeValueAsString(numeralService.convertToNumeral(range[0], range[1])),
+                    toString(encodedNumerals.range(range[0], range[1])));
+        }
+    }
+
+    /**
+     * Buffers are independent per call; consuming one does not affect the next.
+     */
+    @Test
+    public void buffersIndependent() {
+        ByteBuffer first = encodedNumerals.single(1);
+        first.position(first.limit());
+        assertEquals("{\"number\":1,\"numeral\":\"I\"}", toString(encodedNumerals.single(1)));
+    }
+
+    /**
+     * Coverage of the encoding.
+     */
+    @Test
+    public void coversTest() {
+        assertTrue(encodedNumerals.covers(1, 3999));
+        assertFalse(encodedNumerals.covers(0, 1));
+        assertFalse(encodedNumerals.covers(1, 4000));
+        assertFalse(encodedNumerals.covers(2, 1));
+    }
+
+    private static String toString(ByteBuffer... buffers) {
+        StringBuilder json = new StringBuilder();
+        for (ByteBuffer buffer : buffers) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            json.append(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return json.toString();
+    }
+
+}
@@ -2,198 +2,1047 @@ package com.borland.numerals.servlet;
 
 import static org.junit.Assert.assertEquals;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.io.StringReader;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.borland.numerals.App;
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralService;
+import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test class for NumeralServlet
+ * 
+ * @author chrismborland
+ */
+public class NumeralServletTest extends Mockito {
+
+    /**
+     * Clear the metrics before each call.
+     */
+    @Before
+    public void clearMetrics() {
+        App.metrics.remove(App.METRIX_PREFIX + ".successResponseSizes");
+        App.metrics.remove(App.METRIX_PREFIX + ".singleConversions");
+        App.metrics.remove(App.METRIX_PREFIX + ".rangeConversions");
+        App.metrics.remove(App.METRIX_PREFIX + ".encodedSingleSlices");
+        App.metrics.remove(App.METRIX_PREFIX + ".encodedRangeSlices");
+        App.metrics.remove(App.METRIX_PREFIX + ".numeralParses");
+        App.metrics.remove(App.METRIX_PREFIX + ".batchConversions");
+    }
+
+    /**
+     * Valid single conversion request. Checks the numeral pair, response status &
+     * metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validSingle() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("query")).thenReturn("1");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair pair = mapper.readValue(body.toByteArray(), NumeralPair.class);
+
+        // verify values are correct.
+        assertEquals(pair.getNumeral(), "I");
+        assertEquals(pair.getNumber(), new Integer("1"));
+
+        // verify response status correct.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+        // verify metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedSingleSlices").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), 0);
+
+    }
+
+    /**
+     * Valid single conversion with a subtractive notation. Checks the numeral pair,
+     * response status & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validSingleSubtractive() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("query")).thenReturn("2784");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair pair = mapper.readValue(body.toByteArray(), NumeralPair.class);
+
+        // verify values are correct.
+        assertEquals(pair.getNumeral(), "MMDCCLXXXIV");
+        assertEquals(pair.getNumber(), new Integer("2784"));
+
+        // verify response status correct.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+        // verify metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedSingleSlices").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), 0);
+
+    }
+
+    /**
+     * Valid numeral conversion. Checks the numeral pair, response status &
+     * metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validNumeral() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("numeral")).thenReturn("MMDCCLXXXIV");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair pair = mapper.readValue(body.toByteArray(), NumeralPair.class);
+
+        // verify values are correct.
+        assertEquals(pair.getNumeral(), "MMDCCLXXXIV");
+        assertEquals(pair.getNumber(), new Integer("2784"));
+
+        // verify response status correct.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+        // verify metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".numeralParses").getCount(), 1);
+
+    }
+
+    /**
+     * Invalid numeral conversion where the numeral is not in standard form.
+     * Checks the response status & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void invalidNumeralNotStandardForm() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("numeral")).thenReturn("IIII");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+
+        // verify no metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 0);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".numeralParses").getCount(), 0);
+
+    }
+
+    /**
+     * Valid range conversion. Checks the set of numeral pair, response status &
+     * metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRange() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("2");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+
+        // verify values are correct.
+        assertEquals(pairs[0].getNumeral(), "I");
+        assertEquals(pairs[0].getNumber(), new Integer("1"));
+        assertEquals(pairs[1].getNumeral(), "II");
+        assertEquals(pairs[1].getNumber(), new Integer("2"));
+
+        // verify response status correct.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+        // verify metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedRangeSlices").getCount(), 1);
+
+    }
+
+    /**
+     * Valid range conversion containing a number with subtractive notation. Checks
+     * the numeral pair, response status & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangeWithSubtractive() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("898");
+        when(request.getParameter("max")).thenReturn("902");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+
+        // verify values are correct.
+        assertEquals(pairs[0].getNumeral(), "DCCCXCVIII");
+        assertEquals(pairs[0].getNumber(), new Integer("898"));
+        assertEquals(pairs[1].getNumeral(), "DCCCXCIX");
+        assertEquals(pairs[1].getNumber(), new Integer("899"));
+        assertEquals(pairs[2].getNumeral(), "CM");
+        assertEquals(pairs[2].getNumber(), new Integer("900"));
+        assertEquals(pairs[3].getNumeral(), "CMI");
+        assertEquals(pairs[3].getNumber(), new Integer("901"));
+        assertEquals(pairs[4].getNumeral(), "CMII");
+        assertEquals(pairs[4].getNumber(), new Integer("902"));
+
+        // verify response status correct.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+        // verify metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedRangeSlices").getCount(), 1);
+
+    }
+
+    /**
+     * Valid async range conversion. Checks the numeral pairs written through the
+     * write listener, response status, completion & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangeAsync() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("2");
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getRequest()).thenReturn(request);
+        when(asyncContext.getResponse()).thenReturn(response);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        // verify the async request completed.
+        verify(asyncContext, timeout(5000)).complete();
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+
+        // verify values are correct.
+        assertEquals(pairs[0].getNumeral(), "I");
+        assertEquals(pairs[0].getNumber(), new Integer("1"));
+        assertEquals(pairs[1].getNumeral(), "II");
+        assertEquals(pairs[1].getNumber(), new Integer("2"));
+
+        // verify response status correct.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+        // verify metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedRangeSlices").getCount(), 1);
+
+    }
+
+    /**
+     * Valid single conversion carries a strong ETag & immutable cache control.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validSingleCacheHeaders() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("query")).thenReturn("1");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        // verify caching headers.
+        verify(response).setHeader("ETag", "\"" + CacheHeaders.ENGINE_VERSION + "-query-1\"");
+        verify(response).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+    }
+
+    /**
+     * Single conversion with a matching <code>If-None-Match</code> responds
+     * <code>304</code> without converting or writing a body.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validSingleNotModified() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("query")).thenReturn("1");
+        when(request.getHeader("If-None-Match")).thenReturn("\"0-query-1\", W/" + CacheHeaders.etag("query", 1));
+
+        new NumeralServlet().doGet(request, response);
+
+        // verify not modified.
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader("ETag", CacheHeaders.etag("query", 1));
+        verify(response, never()).getOutputStream();
+
+        // verify no conversion.
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), 0);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedSingleSlices").getCount(), 0);
+
+    }
+
+    /**
+     * Range conversion with a matching <code>If-None-Match</code> responds
+     * <code>304</code> before any conversion (including async) starts.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangeNotModified() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("2");
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.getHeader("If-None-Match")).thenReturn(CacheHeaders.etag("minmax", 1, 2));
+
+        new NumeralServlet().doGet(request, response);
+
+        // verify not modified.
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(request, never()).startAsync();
+        verify(response, never()).getOutputStream();
+
+        // verify no conversion.
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedRangeSlices").getCount(), 0);
+
+    }
+
+    /**
+     * Range conversion with a different <code>If-None-Match</code> is converted
+     * as usual.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangeModified() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("2");
+        when(request.getHeader("If-None-Match")).thenReturn(CacheHeaders.etag("minmax", 1, 3));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        // verify converted.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).setHeader("ETag", CacheHeaders.etag("minmax", 1, 2));
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".encodedRangeSlices").getCount(), 1);
+
+    }
+
+    /**
+     * Hot range requested with gzip is served from the precompressed copy, with
+     * the gzip variant ETag.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangePrecompressed() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("100");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(new GZIPInputStream(new ByteArrayInputStream(body.toByteArray())),
+                NumeralPair[].class);
+
+        // verify values are correct.
+        assertEquals(100, pairs.length);
+        assertEquals(pairs[99].getNumeral(), "C");
+
+        // verify gzip headers & uncompressed size recorded.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response).setHeader("ETag", CacheHeaders.gzipEtag(CacheHeaders.etag("minmax", 1, 100)));
+        verify(request).setAttribute(NumeralServlet.UNCOMPRESSED_SIZE_ATTRIBUTE,
+                (long) EncodedNumerals.remaining(EncodedNumerals.standardForm().range(1, 100)));
+
+    }
+
+    /**
+     * Ranges which are not hot, or clients not accepting gzip, are sent
+     * uncompressed (left for the container to compress).
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangeNotPrecompressed() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("2");
+        when(request.getParameter("max")).thenReturn("101");
+        when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+        assertEquals(100, pairs.length);
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+
+        // gzip refused.
+        assertEquals(false, NumeralServlet.acceptsGzip("gzip;q=0, identity"));
+        assertEquals(true, NumeralServlet.acceptsGzip("br, *;q=0.5"));
+        assertEquals(false, NumeralServlet.acceptsGzip(null));
+
+    }
+
+    /**
+     * Valid range conversion negotiated as CSV. Checks the body, content type,
+     * format specific ETag & Vary header.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangeCsv() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("2");
+        when(request.getParameter("format")).thenReturn("csv");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        assertEquals("number,numeral\r\n1,I\r\n2,II\r\n", new String(body.toByteArray(), StandardCharsets.UTF_8));
+        verify(response).setContentType("text/csv");
+        verify(response).setHeader("ETag", CacheHeaders.etag("minmax.csv", 1, 2));
+        verify(response).addHeader("Vary", "Accept");
+
+    }
+
+    /**
+     * Valid single conversion negotiated by Accept header as NDJSON.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validSingleNdjson() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("query")).thenReturn("9");
+        when(request.getHeader("Accept")).thenReturn("application/x-ndjson");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        assertEquals("{\"number\":9,\"numeral\":\"IX\"}\n", new String(body.toByteArray(), StandardCharsets.UTF_8));
+        verify(response).setContentType("application/x-ndjson");
+
+    }
+
+    /**
+     * Invalid (unknown) format parameter.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void invalidFormat() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("2");
+        when(request.getParameter("format")).thenReturn("xml");
+
+        new NumeralServlet().doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(response, never()).getOutputStream();
+
+    }
+
+    /**
+     * Numeral & extended conversions are always JSON, so a format parameter
+     * (even an unknown one) is ignored rather than rejected.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void formatIgnoredOutsideSingleAndRange() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("numeral")).thenReturn("MMDCCLXXXIV");
+        when(request.getParameter("format")).thenReturn("xml");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair pair = mapper.readValue(body.toByteArray(), NumeralPair.class);
+        assertEquals(pair.getNumber(), new Integer("2784"));
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response, never()).addHeader("Vary", "Accept");
+
+        // extended.
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("query")).thenReturn("5265");
+        when(request.getParameter("extended")).thenReturn("true");
+        when(request.getParameter("format")).thenReturn("xml");
+
+        body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        pair = mapper.readValue(body.toByteArray(), NumeralPair.class);
+        assertEquals(pair.getNumber(), new Integer("5265"));
+        verify(response).setStatus(HttpServletResponse.SC_OK);
 
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
+    }
 
-import com.borland.numerals.App;
-import com.borland.numerals.service.NumeralPair;
-import com.fasterxml.jackson.databind.ObjectMapper;
+    /**
+     * Valid paged range conversion. Follows the cursor from the first page to the
+     * last, which has no next cursor.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangePaged() throws Exception {
 
-import org.junit.Before;
-import org.junit.Test;
-import org.mockito.Mockito;
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
 
-/**
- * Test class for NumeralServlet
- * 
- * @author chrismborland
- */
-public class NumeralServletTest extends Mockito {
+        when(request.getRequestURI()).thenReturn("/romannumeral");
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("250");
+        when(request.getParameter("limit")).thenReturn("100");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+        assertEquals(100, pairs.length);
+        assertEquals(new Integer(1), pairs[0].getNumber());
+        assertEquals(new Integer(100), pairs[99].getNumber());
+        String next = PageCursor.encode(1, 250, 101);
+        verify(response).setHeader("X-Next-Cursor", next);
+        verify(response).setHeader("Link", "</romannumeral?min=1&max=250&limit=100&cursor=" + next + ">; rel=\"next\"");
+
+        // last page.
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("250");
+        when(request.getParameter("limit")).thenReturn("100");
+        when(request.getParameter("cursor")).thenReturn(PageCursor.encode(1, 250, 201));
+
+        body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+        assertEquals(50, pairs.length);
+        assertEquals(new Integer(201), pairs[0].getNumber());
+        assertEquals("CCL", pairs[49].getNumeral());
+        verify(response).setHeader("ETag", CacheHeaders.etag("minmax", 201, 250));
+        verify(response, never()).setHeader(eq("X-Next-Cursor"), anyString());
+        verify(response, never()).setHeader(eq("Link"), anyString());
+
+    }
 
     /**
-     * Clear the metrics before each call.
+     * Valid paged range conversions of pages holding a single number (the last
+     * page, and every page with a limit of 1).
+     * 
+     * @throws Exception
      */
-    @Before
-    public void clearMetrics() {
-        App.metrics.remove(App.METRIX_PREFIX + ".successResponseSizes");
-        App.metrics.remove(App.METRIX_PREFIX + ".singleConversions");
-        App.metrics.remove(App.METRIX_PREFIX + ".rangeConversions");
+    @Test
+    public void validRangePagedSingleNumber() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("201");
+        when(request.getParameter("limit")).thenReturn("100");
+        when(request.getParameter("cursor")).thenReturn(PageCursor.encode(1, 201, 201));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+        assertEquals(1, pairs.length);
+        assertEquals(new Integer(201), pairs[0].getNumber());
+        assertEquals("CCI", pairs[0].getNumeral());
+        verify(response, never()).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(response, never()).setHeader(eq("X-Next-Cursor"), anyString());
+
+        // limit of 1.
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("3");
+        when(request.getParameter("limit")).thenReturn("1");
+
+        body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
+
+        pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+        assertEquals(1, pairs.length);
+        assertEquals("I", pairs[0].getNumeral());
+        verify(response, never()).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(response).setHeader("X-Next-Cursor", PageCursor.encode(1, 3, 2));
+
     }
 
     /**
-     * Valid single conversion request. Checks the numeral pair, response status &
-     * metrics.
+     * Invalid paged range conversions (cursor for another range, limit too low).
      * 
      * @throws Exception
      */
     @Test
-    public void validSingle() throws Exception {
+    public void invalidRangePaged() throws Exception {
 
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
 
-        when(request.getParameter("query")).thenReturn("1");
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("250");
+        when(request.getParameter("cursor")).thenReturn(PageCursor.encode(1, 300, 201));
+
+        new NumeralServlet().doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(response, never()).getOutputStream();
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("250");
+        when(request.getParameter("limit")).thenReturn("0");
 
         new NumeralServlet().doGet(request, response);
 
-        writer.flush();
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(response, never()).getOutputStream();
+
+    }
+
+    /**
+     * Valid extended single conversion. Checks the numeral pair, response status
+     * & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validExtendedSingle() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("query")).thenReturn("5265");
+        when(request.getParameter("extended")).thenReturn("true");
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doGet(request, response);
 
         ObjectMapper mapper = new ObjectMapper();
-        NumeralPair pair = mapper.readValue(stringWriter.toString(), NumeralPair.class);
+        NumeralPair pair = mapper.readValue(body.toByteArray(), NumeralPair.class);
 
         // verify values are correct.
-        assertEquals(pair.getNumeral(), "I");
-        assertEquals(pair.getNumber(), new Integer("1"));
+        assertEquals(pair.getNumeral(), "V\u0305CCLXV");
+        assertEquals(pair.getNumber(), new Integer("5265"));
 
         // verify response status correct.
         verify(response).setStatus(HttpServletResponse.SC_OK);
+        verify(response).setCharacterEncoding("UTF-8");
 
         // verify metrics captured.
         assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
-        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), 1);
 
     }
 
     /**
-     * Valid single conversion with a subtractive notation. Checks the numeral pair,
-     * response status & metrics.
+     * Valid extended range conversion crossing into vinculum notation. Checks the
+     * streamed numeral pairs, response status & metrics.
      * 
      * @throws Exception
      */
     @Test
-    public void validSingleSubtractive() throws Exception {
+    public void validExtendedRange() throws Exception {
 
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
 
-        when(request.getParameter("query")).thenReturn("2784");
+        when(request.getParameter("min")).thenReturn("3999");
+        when(request.getParameter("max")).thenReturn("4001");
+        when(request.getParameter("extended")).thenReturn("true");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
-        writer.flush();
-
         ObjectMapper mapper = new ObjectMapper();
-        NumeralPair pair = mapper.readValue(stringWriter.toString(), NumeralPair.class);
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
 
         // verify values are correct.
-        assertEquals(pair.getNumeral(), "MMDCCLXXXIV");
-        assertEquals(pair.getNumber(), new Integer("2784"));
+        assertEquals(pairs.length, 3);
+        assertEquals(pairs[0].getNumeral(), "MMMCMXCIX");
+        assertEquals(pairs[1].getNumeral(), "I\u0305V\u0305");
+        assertEquals(pairs[2].getNumber(), new Integer("4001"));
 
         // verify response status correct.
         verify(response).setStatus(HttpServletResponse.SC_OK);
 
         // verify metrics captured.
         assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
-        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".singleConversions").getCount(), 1);
 
     }
 
     /**
-     * Valid range conversion. Checks the set of numeral pair, response status &
-     * metrics.
+     * Invalid extended range where the min parameter is higher than the max
+     * parameter. Checks the response status & metrics.
      * 
      * @throws Exception
      */
     @Test
-    public void validRange() throws Exception {
+    public void invalidExtendedRangeMinHigherThanMax() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getParameter("min")).thenReturn("5000000");
+        when(request.getParameter("max")).thenReturn("4000");
+        when(request.getParameter("extended")).thenReturn("true");
+
+        new NumeralServlet().doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+
+        // verify no metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 0);
+
+    }
+
+    /**
+     * Valid extended range far wider than the standard form range. Checks every
+     * numeral pair is streamed, in order, response status & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validExtendedRangeWide() throws Exception {
 
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
 
         when(request.getParameter("min")).thenReturn("1");
-        when(request.getParameter("max")).thenReturn("2");
+        when(request.getParameter("max")).thenReturn("25000");
+        when(request.getParameter("extended")).thenReturn("true");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
-        writer.flush();
-
         ObjectMapper mapper = new ObjectMapper();
-        NumeralPair[] pairs = mapper.readValue(stringWriter.toString(), NumeralPair[].class);
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
 
         // verify values are correct.
+        assertEquals(pairs.length, 25000);
         assertEquals(pairs[0].getNumeral(), "I");
-        assertEquals(pairs[0].getNumber(), new Integer("1"));
-        assertEquals(pairs[1].getNumeral(), "II");
-        assertEquals(pairs[1].getNumber(), new Integer("2"));
+        assertEquals(pairs[9999].getNumeral(), "X\u0305");
+        assertEquals(pairs[24999].getNumber(), new Integer("25000"));
 
         // verify response status correct.
         verify(response).setStatus(HttpServletResponse.SC_OK);
 
         // verify metrics captured.
         assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
-        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions").getCount(), 1);
 
     }
 
     /**
-     * Valid range conversion containing a number with subtractive notation. Checks
-     * the numeral pair, response status & metrics.
+     * Valid batch conversion with a JSON array body. Checks the numeral pairs are
+     * in request order, response status & metrics.
      * 
      * @throws Exception
      */
     @Test
-    public void validRangeWithSubtractive() throws Exception {
+    public void validBatchJson() throws Exception {
 
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
 
-        when(request.getParameter("min")).thenReturn("898");
-        when(request.getParameter("max")).thenReturn("902");
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader(" [900, 4, 2784, 4]")));
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
-
-        new NumeralServlet().doGet(request, response);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
-        writer.flush();
+        new NumeralServlet().doPost(request, response);
 
         ObjectMapper mapper = new ObjectMapper();
-        NumeralPair[] pairs = mapper.readValue(stringWriter.toString(), NumeralPair[].class);
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
 
         // verify values are correct.
-        assertEquals(pairs[0].getNumeral(), "DCCCXCVIII");
-        assertEquals(pairs[0].getNumber(), new Integer("898"));
-        assertEquals(pairs[1].getNumeral(), "DCCCXCIX");
-        assertEquals(pairs[1].getNumber(), new Integer("899"));
-        assertEquals(pairs[2].getNumeral(), "CM");
-        assertEquals(pairs[2].getNumber(), new Integer("900"));
-        assertEquals(pairs[3].getNumeral(), "CMI");
-        assertEquals(pairs[3].getNumber(), new Integer("901"));
-        assertEquals(pairs[4].getNumeral(), "CMII");
-        assertEquals(pairs[4].getNumber(), new Integer("902"));
+        assertEquals(pairs.length, 4);
+        assertEquals(pairs[0].getNumeral(), "CM");
+        assertEquals(pairs[1].getNumeral(), "IV");
+        assertEquals(pairs[2].getNumeral(), "MMDCCLXXXIV");
+        assertEquals(pairs[3].getNumber(), new Integer("4"));
 
         // verify response status correct.
         verify(response).setStatus(HttpServletResponse.SC_OK);
 
         // verify metrics captured.
         assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 1);
-        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".rangeConversions").getCount(), 1);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".batchConversions").getCount(), 1);
+
+    }
+
+    /**
+     * Valid batch conversion with a newline separated body. Checks the numeral
+     * pairs, response status & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validBatchLines() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader("12\n\n3\r\n12\n")));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
+
+        new NumeralServlet().doPost(request, response);
+
+        ObjectMapper mapper = new ObjectMapper();
+        NumeralPair[] pairs = mapper.readValue(body.toByteArray(), NumeralPair[].class);
+
+        // verify values are correct.
+        assertEquals(pairs.length, 3);
+        assertEquals(pairs[0].getNumeral(), "XII");
+        assertEquals(pairs[1].getNumeral(), "III");
+        assertEquals(pairs[2].getNumeral(), "XII");
+
+        // verify response status correct.
+        verify(response).setStatus(HttpServletResponse.SC_OK);
+
+    }
+
+    /**
+     * Invalid batch conversion where a number is out of range. Checks the
+     * response status & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void invalidBatchNumberTooHigh() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader("[1, 4000]")));
+
+        new NumeralServlet().doPost(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+
+        // verify no metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 0);
+        assertEquals(App.metrics.timer(App.METRIX_PREFIX + ".batchConversions").getCount(), 0);
+
+    }
+
+    /**
+     * Invalid batch conversion where the body is malformed. Checks the response
+     * status.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void invalidBatchMalformed() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader("[1, \"X\"]")));
+
+        new NumeralServlet().doPost(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+
+    }
+
+    /**
+     * Invalid batch conversion where the body is empty. Checks the response
+     * status.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void invalidBatchEmpty() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader("  ")));
+
+        new NumeralServlet().doPost(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+
+    }
+
+    /**
+     * Invalid batch conversion with more numbers than allowed. Checks the
+     * response status.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void invalidBatchTooLarge() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i <= NumeralServlet.MAX_BATCH_SIZE; i++) {
+            body.append("1\n");
+        }
+        when(request.getReader()).thenReturn(new BufferedReader(new StringReader(body.toString())));
+
+        new NumeralServlet().doPost(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
 
     }
 
@@ -207,9 +1056,8 @@ public class NumeralServletTest extends Mockito {
         HttpServletRequest request = mock(HttpServletRequest.class);
         HttpServletResponse response = mock(HttpServletResponse.class);
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
@@ -235,9 +1083,8 @@ public class NumeralServletTest extends Mockito {
 
         when(request.getParameter("query")).thenReturn("asdf");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
@@ -263,9 +1110,8 @@ public class NumeralServletTest extends Mockito {
 
         when(request.getParameter("query")).thenReturn("4000");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
@@ -291,9 +1137,8 @@ public class NumeralServletTest extends Mockito {
 
         when(request.getParameter("query")).thenReturn("0");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
@@ -320,9 +1165,8 @@ public class NumeralServletTest extends Mockito {
         when(request.getParameter("min")).thenReturn("0");
         when(request.getParameter("max")).thenReturn("3999");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
@@ -349,9 +1193,8 @@ public class NumeralServletTest extends Mockito {
         when(request.getParameter("min")).thenReturn("1");
         when(request.getParameter("max")).thenReturn("4000");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
@@ -378,9 +1221,8 @@ public class NumeralServletTest extends Mockito {
         when(request.getParameter("min")).thenReturn("3999");
         when(request.getParameter("max")).thenReturn("3000");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         new NumeralServlet().doGet(request, response);
 
@@ -406,13 +1248,13 @@ public class NumeralServletTest extends Mockito {
 
         when(request.getParameter("query")).thenReturn("3000");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         Thread.currentThread().interrupt();
 
-        new NumeralServlet().doGet(request, response);
+        // use the executor backed service, since it can be interrupted.
+        new NumeralServlet(new StandardFormNumeralServiceImpl()).doGet(request, response);
 
         verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
 
@@ -436,13 +1278,13 @@ public class NumeralServletTest extends Mockito {
         when(request.getParameter("min")).thenReturn("3000");
         when(request.getParameter("max")).thenReturn("3999");
 
-        StringWriter stringWriter = new StringWriter();
-        PrintWriter writer = new PrintWriter(stringWriter);
-        when(response.getWriter()).thenReturn(writer);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ByteArrayServletOutputStream(body));
 
         Thread.currentThread().interrupt();
 
-        new NumeralServlet().doGet(request, response);
+        // use the executor backed service, since it can be interrupted.
+        new NumeralServlet(new StandardFormNumeralServiceImpl()).doGet(request, response);
 
         verify(response).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
 
@@ -451,4 +1293,65 @@ public class NumeralServletTest extends Mockito {
 
     }
 
+    /**
+     * Valid range conversion where the conversion executor is saturated. Checks
+     * the response status, retry header & metrics.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void validRangeRejected() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        NumeralService numeralService = mock(NumeralService.class);
+
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getParameter("min")).thenReturn("1");
+        when(request.getParameter("max")).thenReturn("3999");
+        when(numeralService.isRangeEligible(1, 3999)).thenReturn(true);
+        when(numeralService.convertToNumeralRange(1, 3999)).thenThrow(new RejectedExecutionException("saturated"));
+
+        new NumeralServlet(numeralService).service(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        verify(response).setHeader("Retry-After", Integer.toString(App.RETRY_AFTER_SECONDS));
+
+        // verify no metrics captured.
+        assertEquals(App.metrics.histogram(App.METRIX_PREFIX + ".successResponseSizes").getCount(), 0);
+
+    }
+
+    /**
+     * Servlet output stream over a byte array, which is always writable.
+     */
+    private static class ByteArrayServletOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream body;
+
+        ByteArrayServletOutputStream(ByteArrayOutputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            body.write(b);
+        }
+
+    }
+
 }
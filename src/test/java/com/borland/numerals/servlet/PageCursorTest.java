@@ -0,0 +1,47 @@
+package com.borland.numerals.servlet;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Test class for PageCursor.
+ * 
+ * @author chrismborland
+ */
+public class PageCursorTest {
+
+    /**
+     * Cursors decode to the page they were encoded for & are url safe.
+     */
+    @Test
+    public void roundTrip() {
+        String cursor = PageCursor.encode(1, 3999, 101);
+        assertEquals(true, cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(101, PageCursor.decode(cursor, 1, 3999));
+        assertEquals(3999, PageCursor.decode(PageCursor.encode(1, 3999, 3999), 1, 3999));
+    }
+
+    /**
+     * Cursors are bound to the range they were issued for.
+     */
+    @Test
+    public void otherRange() {
+        String cursor = PageCursor.encode(1, 3999, 101);
+        assertEquals(-1, PageCursor.decode(cursor, 1, 3998));
+        assertEquals(-1, PageCursor.decode(cursor, 2, 3999));
+        assertEquals(-1, PageCursor.decode(PageCursor.encode(1, 50, 51), 1, 50));
+    }
+
+    /**
+     * Malformed cursors are rejected.
+     */
+    @Test
+    public void malformed() {
+        assertEquals(-1, PageCursor.decode("not a cursor!", 1, 3999));
+        assertEquals(-1, PageCursor.decode("", 1, 3999));
+        assertEquals(-1, PageCursor.decode("MTAx", 1, 3999));
+        assertEquals(-1, PageCursor.decode(PageCursor.encode(1, 3999, 101) + "AA", 1, 3999));
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.borland.numerals.servlet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.borland.numerals.concurrent.ThreadSupport;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test class for ThreadPerRequestFilter
+ * 
+ * @author chrismborland
+ */
+public class ThreadPerRequestFilterTest extends Mockito {
+
+    /**
+     * Request is handled on a request thread, and the async context is completed.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void handledOnRequestThread() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        when(request.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getRequest()).thenReturn(request);
+        when(asyncContext.getResponse()).thenReturn(response);
+
+        final AtomicReference<Thread> handlingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            handlingThread.set(Thread.currentThread());
+            return null;
+        }).when(chain).doFilter(request, response);
+
+        new ThreadPerRequestFilter(ThreadSupport.newThreadFactory("test-request-")).doFilter(request, response, chain);
+
+        verify(asyncContext, timeout(5000)).complete();
+        verify(chain).doFilter(request, response);
+        assertNotSame(Thread.currentThread(), handlingThread.get());
+        assertEquals("test-request-1", handlingThread.get().getName());
+    }
+
+    /**
+     * Failed request reports <code>500</code>, and the async context is still
+     * completed.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void failedRequest() throws Exception {
+
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        FilterChain chain = mock(FilterChain.class);
+
+        when(request.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getRequest()).thenReturn(request);
+        when(asyncContext.getResponse()).thenReturn(response);
+        doThrow(new IllegalStateException()).when(chain).doFilter(request, response);
+
+        new ThreadPerRequestFilter(ThreadSupport.newThreadFactory("test-request-")).doFilter(request, response, chain);
+
+        verify(asyncContext, timeout(5000)).complete();
+        verify(response).setStatus(500);
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.borland.numerals.servlet.format;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.borland.numerals.service.NumeralPair;
+import com.borland.numerals.service.NumeralRange;
+import com.borland.numerals.service.impl.PrecomputedNumeralServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.Test;
+
+/**
+ * Test class for NumeralFormat & the range writers.
+ * 
+ * @author chrismborland
+ */
+public class NumeralFormatTest {
+
+    private final NumeralRange range = new PrecomputedNumeralServiceImpl().convertToNumeralRange(3, 5);
+
+    /**
+     * Explicit format parameter wins over the Accept header; unknown formats are
+     * rejected.
+     */
+    @Test
+    public void negotiateFormatParameter() {
+        assertEquals(NumeralFormat.CSV, NumeralFormat.negotiate("csv", "application/x-ndjson"));
+        assertEquals(NumeralFormat.BINARY, NumeralFormat.negotiate("BINARY", null));
+        assertNull(NumeralFormat.negotiate("xml", null));
+    }
+
+    /**
+     * Accept header negotiation, by quality & falling back to JSON.
+     */
+    @Test
+    public void negotiateAccept() {
+        assertEquals(NumeralFormat.JSON, NumeralFormat.negotiate(null, null));
+        assertEquals(NumeralFormat.JSON, NumeralFormat.negotiate(null, "*/*"));
+        assertEquals(NumeralFormat.JSON, NumeralFormat.negotiate(null, "text/html"));
+        assertEquals(NumeralFormat.NDJSON, NumeralFormat.negotiate(null, "application/x-ndjson"));
+        assertEquals(NumeralFormat.COLUMNAR,
+                NumeralFormat.negotiate(null, "application/json;q=0.5, application/vnd.numerals.columnar+json"));
+        assertEquals(NumeralFormat.CSV, NumeralFormat.negotiate(null, "text/csv, */*;q=0.1"));
+        assertEquals(NumeralFormat.JSON, NumeralFormat.negotiate(null, "text/csv;q=0.2, */*;q=0.8"));
+    }
+
+    /**
+     * JSON array of numeral pair objects.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void writeJson() throws IOException {
+        NumeralPair[] pairs = new ObjectMapper().readValue(write(NumeralFormat.JSON), NumeralPair[].class);
+        assertEquals(3, pairs.length);
+        assertEquals(new Integer(4), pairs[1].getNumber());
+        assertEquals("IV", pairs[1].getNumeral());
+    }
+
+    /**
+     * One JSON object per line.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void writeNdjson() throws IOException {
+        assertEquals("{\"number\":3,\"numeral\":\"III\"}\n{\"number\":4,\"numeral\":\"IV\"}\n"
+                + "{\"number\":5,\"numeral\":\"V\"}\n", new String(write(NumeralFormat.NDJSON), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * CSV with header.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void writeCsv() throws IOException {
+        assertEquals("number,numeral\r\n3,III\r\n4,IV\r\n5,V\r\n",
+                new String(write(NumeralFormat.CSV), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Columnar JSON, with implicit numbers.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void writeColumnar() throws IOException {
+        JsonNode columnar = new ObjectMapper().readTree(write(NumeralFormat.COLUMNAR));
+        assertEquals(3, columnar.get("start").asInt());
+        assertEquals("IV", columnar.get("numerals").get(1).asText());
+        assertEquals(3, columnar.get("numerals").size());
+    }
+
+    /**
+     * Length-prefixed binary.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void writeBinary() throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(write(NumeralFormat.BINARY)));
+        assertEquals(3, in.readInt());
+        assertEquals(3, in.readInt());
+        String[] numerals = new String[3];
+        for (int i = 0; i < numerals.length; i++) {
+            byte[] numeral = new byte[in.readUnsignedByte()];
+            in.readFully(numeral);
+            numerals[i] = new String(numeral, StandardCharsets.US_ASCII);
+        }
+        assertArrayEquals(new String[] { "III", "IV", "V" }, numerals);
+        assertEquals(-1, in.read());
+    }
+
+    /**
+     * Compact formats are well under half the size of the default JSON for a
+     * full range.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void compactFormatsSmaller() throws IOException {
+        NumeralRange full = new PrecomputedNumeralServiceImpl().convertToNumeralRange(1, 3999);
+        int json = write(NumeralFormat.JSON, full).length;
+        assertEquals(true, write(NumeralFormat.COLUMNAR, full).length * 2 < json);
+        assertEquals(true, write(NumeralFormat.BINARY, full).length * 2 < json);
+    }
+
+    private byte[] write(final NumeralFormat format) throws IOException {
+        return write(format, range);
+    }
+
+    private static byte[] write(final NumeralFormat format, final NumeralRange range) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.getWriter().write(range, out);
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.borland.numerals.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.borland.numerals.service.impl.StandardFormNumeralServiceImpl;
+import com.borland.numerals.servlet.NumeralServlet;
+
+import org.eclipse.jetty.server.LocalConnector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test class for the Java 11 JFR events. Runs against the multi-release JAR
+ * (so the events are real JFR events), recording every request & conversion
+ * (threshold 0).
+ *
+ * @author chrismborland
+ */
+public class JfrEventsIT {
+
+    private static final String REQUEST = "com.borland.numerals.Request";
+    private static final String CONVERSION = "com.borland.numerals.Conversion";
+    private static final String ENCODED_PATH = "/encoded";
+
+    private Server server;
+    private LocalConnector connector;
+    private Recording recording;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new Server();
+        connector = new LocalConnector(server);
+        server.addConnector(connector);
+        ServletContextHandler servletContextHandler = new ServletContextHandler();
+        // convert through the standard form service, so conversions are recorded too.
+        ServletHolder holder = new ServletHolder(new NumeralServlet(new StandardFormNumeralServiceImpl()));
+        holder.setAsyncSupported(true);
+        servletContextHandler.addServlet(holder, NumeralServlet.SERVLET_PATH);
+        // serve ranges from the pre-encoded json, which can complete before the servlet returns.
+        ServletHolder encodedHolder = new ServletHolder(new NumeralServlet());
+        encodedHolder.setAsyncSupported(true);
+        servletContextHandler.addServlet(encodedHolder, ENCODED_PATH);
+        server.setHandler(servletContextHandler);
+        server.start();
+        recording = new Recording();
+        recording.enable(REQUEST).withThreshold(Duration.ZERO);
+        recording.enable(CONVERSION).withThreshold(Duration.ZERO);
+        recording.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.stop();
+        recording.close();
+    }
+
+    /**
+     * A sync single request records a request & a single conversion.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void single() throws Exception {
+        String response = connector.getResponse("GET " + NumeralServlet.SERVLET_PATH
+                + "?query=1994 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+        assertTrue(response, response.startsWith("HTTP/1.1 200"));
+
+        List<RecordedEvent> events = stop();
+
+        RecordedEvent request = only(events, REQUEST);
+        assertEquals("GET", request.getString("method"));
+        assertEquals("single", request.getString("mode"));
+        assertEquals("query=1994", request.getString("parameters"));
+        assertEquals(200, request.getInt("status"));
+        assertTrue(request.getLong("responseBytes") > 0);
+
+        RecordedEvent conversion = only(events, CONVERSION);
+        assertEquals(ConversionEvent.SINGLE, conversion.getString("kind"));
+        assertEquals(1994, conversion.getInt("lowNumber"));
+        assertEquals(1994, conversion.getInt("highNumber"));
+        assertEquals(1, conversion.getInt("width"));
+        assertTrue(conversion.getBoolean("successful"));
+    }
+
+    /**
+     * An async range request records a request (committed once the response
+     * completes) & a range conversion on the range pool.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void asyncRange() throws Exception {
+        String response = connector.getResponse("GET " + NumeralServlet.SERVLET_PATH
+                + "?min=1&max=100 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+        assertTrue(response, response.startsWith("HTTP/1.1 200"));
+
+        List<RecordedEvent> events = stop();
+
+        RecordedEvent request = only(events, REQUEST);
+        assertEquals("GET", request.getString("method"));
+        assertEquals("range", request.getString("mode"));
+        assertEquals("min=1&max=100", request.getString("parameters"));
+        assertEquals(200, request.getInt("status"));
+        assertTrue(request.getLong("responseBytes") > 0);
+
+        RecordedEvent conversion = only(events, CONVERSION);
+        assertEquals(ConversionEvent.RANGE, conversion.getString("kind"));
+        assertEquals(1, conversion.getInt("lowNumber"));
+        assertEquals(100, conversion.getInt("highNumber"));
+        assertEquals(100, conversion.getInt("width"));
+        assertTrue(conversion.getInt("parallelism") > 0);
+        assertTrue(conversion.getInt("blockSize") > 0);
+        assertTrue(conversion.getBoolean("successful"));
+    }
+
+    /**
+     * An async range request written straight from the pre-encoded JSON still
+     * records its request, with nothing converted.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void asyncEncodedRange() throws Exception {
+        String response = connector.getResponse("GET " + ENCODED_PATH
+                + "?min=1&max=3999 HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+        assertTrue(response, response.startsWith("HTTP/1.1 200"));
+
+        List<RecordedEvent> events = stop();
+
+        RecordedEvent request = only(events, REQUEST);
+        assertEquals("range", request.getString("mode"));
+        assertEquals("min=1&max=3999", request.getString("parameters"));
+        assertEquals(200, request.getInt("status"));
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().equals(CONVERSION)));
+    }
+
+    /**
+     * Stops the server (so async requests complete) & the recording, then reads
+     * the recorded events.
+     */
+    private List<RecordedEvent> stop() throws Exception {
+        server.stop();
+        recording.stop();
+        Path file = Files.createTempFile("numerals", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static RecordedEvent only(final List<RecordedEvent> events, final String name) {
+        List<RecordedEvent> named = events.stream().filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+        assertEquals(named.toString(), 1, named.size());
+        return named.get(0);
+    }
+
+}